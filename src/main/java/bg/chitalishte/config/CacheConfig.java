@@ -14,13 +14,12 @@ import java.util.concurrent.TimeUnit;
 public class CacheConfig {
 
     /**
-     * Configure Caffeine cache manager for GeoJSON data
-     * Since GeoJSON files don't change frequently, we can cache them aggressively
+     * Configure Caffeine cache manager for reference data
+     * GeoJSON layers are held pre-encoded by GeoJsonLayerStore and are not cached here
      */
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                "geojson",
                 "municipalitiesCsv",
                 "searches"  // Added searches to the same cache manager
         );
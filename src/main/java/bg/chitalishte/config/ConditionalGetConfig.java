@@ -0,0 +1,26 @@
+package bg.chitalishte.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+    private final DatasetVersionInterceptor datasetVersionInterceptor;
+
+    /**
+     * Read endpoints whose responses only change with the dataset version
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(datasetVersionInterceptor)
+                .addPathPatterns(
+                        "/api/municipalities/**",
+                        "/api/chitalishta/**",
+                        "/api/geocoding/**",
+                        "/api/regions/**");
+    }
+}
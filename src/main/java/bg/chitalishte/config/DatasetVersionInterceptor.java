@@ -0,0 +1,50 @@
+package bg.chitalishte.config;
+
+import bg.chitalishte.service.DatasetVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Conditional GET keyed by the dataset version
+ * Answers If-None-Match / If-Modified-Since with 304 before the controller (and any DB work) runs,
+ * otherwise adds ETag and Last-Modified to the response
+ * Geocoding responses are gzip-coded for clients that accept it, so there the ETag names the
+ * coding and Vary: Accept-Encoding is set here as well - a 304 never reaches the controller
+ */
+@Component
+@RequiredArgsConstructor
+public class DatasetVersionInterceptor implements HandlerInterceptor {
+
+    private static final String GEOCODING_PATH = "/api/geocoding/";
+
+    private final DatasetVersionService datasetVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        DatasetVersionService.DatasetVersion version = datasetVersionService.current();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        String etag = version.etag();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith(GEOCODING_PATH)) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (AcceptEncoding.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                // Strong ETags differ per content coding: "<boot>-<n>" becomes "<boot>-<n>-gzip"
+                etag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+            }
+        }
+
+        // Sets ETag/Last-Modified and, when the client copy is current, status 304
+        return !new ServletWebRequest(request, response).checkNotModified(etag, version.lastModified());
+    }
+}
@@ -0,0 +1,22 @@
+package bg.chitalishte.config;
+
+import bg.chitalishte.service.GeoJsonLayerStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the GeoJSON layer load report (sources, sizes, load times) to /actuator/info
+ */
+@Component
+@RequiredArgsConstructor
+public class GeocodingInfoContributor implements InfoContributor {
+
+    private final GeoJsonLayerStore layerStore;
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        layerStore.getLastLoad().ifPresent(report -> builder.withDetail("geocoding", report));
+    }
+}
@@ -0,0 +1,89 @@
+package bg.chitalishte.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates database objects that Hibernate ddl-auto cannot manage (materialized views, expression indexes)
+ * Every statement is idempotent and runs after the entity tables exist
+ */
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class StartupDatabaseObjects implements ApplicationRunner {
+
+    private static final List<String> STATEMENTS = List.of(
+            // Denormalized read model for GET /api/municipalities/{code}/metrics
+            """
+            CREATE MATERIALIZED VIEW IF NOT EXISTS municipality_metrics_view AS
+            SELECT
+                m.municipality_code,
+                m.municipality AS municipality_name,
+                mm.id AS metrics_id,
+                mm.total_chitalishta,
+                mm.village_chitalishta,
+                mm.city_chitalishta,
+                mm.state_subsidy_amount,
+                mm.state_subsidy_per_capita,
+                mm.additional_positions,
+                mm.revenue_from_subsidies_percent,
+                mm.revenue_from_rent_percent,
+                mm.revenue_from_other_percent,
+                mm.expenses_for_salaries_percent,
+                mm.expenses_other_percent,
+                mm.total_staff,
+                mm.unique_employment_contracts,
+                mm.staff_higher_education_percent,
+                mm.staff_secondary_education_percent,
+                mm.secretaries_count,
+                mm.secretaries_higher_education_percent,
+                mm.average_insurance_income,
+                mm.chitalishta_no_training_percent,
+                mm.chitalishta_per_10k_residents,
+                mm.chitalishta_per_1k_children_under_15,
+                mm.chitalishta_per_1k_students,
+                mm.chitalishta_per_1k_kindergarten,
+                mm.chitalishta_per_1k_elderly
+            FROM municipality_metrics mm
+            JOIN municipalities m ON m.id = mm.municipality_id
+            """,
+            // REFRESH ... CONCURRENTLY requires a unique index
+            "CREATE UNIQUE INDEX IF NOT EXISTS uk_municipality_metrics_view_code " +
+                    "ON municipality_metrics_view (municipality_code)",
+            // Trigram indexes for FuzzySearchRepository (word similarity and LIKE '%q%')
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_chitalishta_name_trgm " +
+                    "ON chitalishta USING gin (lower(name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_chitalishta_town_trgm " +
+                    "ON chitalishta USING gin (lower(town) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_chitalishta_settlement_norm_trgm " +
+                    "ON chitalishta USING gin (lower(settlement_norm) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_municipalities_name_trgm " +
+                    "ON municipalities USING gin (lower(municipality) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_municipalities_norm_trgm " +
+                    "ON municipalities USING gin (lower(municipality_norm) gin_trgm_ops)",
+            // Keyset pagination indexes for ChitalishteKeysetRepository, one per ChitalishteSortField
+            "CREATE INDEX IF NOT EXISTS idx_chitalishta_keyset_name " +
+                    "ON chitalishta ((COALESCE(name, '')), id)",
+            "CREATE INDEX IF NOT EXISTS idx_chitalishta_keyset_reg_n " +
+                    "ON chitalishta ((COALESCE(reg_n, '')), id)",
+            "CREATE INDEX IF NOT EXISTS idx_chitalishta_keyset_town " +
+                    "ON chitalishta ((COALESCE(town, '')), id)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Creating database objects ({} statements)", STATEMENTS.size());
+        STATEMENTS.forEach(jdbcTemplate::execute);
+    }
+}
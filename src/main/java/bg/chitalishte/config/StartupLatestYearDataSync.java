@@ -0,0 +1,25 @@
+package bg.chitalishte.config;
+
+import bg.chitalishte.repository.ChitalishteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills chitalishta.latest_year/latest_status from chitalishte_year_data on startup
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupLatestYearDataSync implements ApplicationRunner {
+
+    private final ChitalishteRepository chitalishteRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = chitalishteRepository.syncLatestYearData();
+        log.info("Latest year data synced for {} chitalishta", updated);
+    }
+}
@@ -0,0 +1,55 @@
+package bg.chitalishte.controller;
+
+import bg.chitalishte.dto.BatchGetRequestDTO;
+import bg.chitalishte.dto.BatchGetResponseDTO;
+import bg.chitalishte.dto.ChitalishteDTO;
+import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import bg.chitalishte.service.ChitalishteService;
+import bg.chitalishte.service.MunicipalityMetricsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for batch lookups (up to 500 keys per request)
+ * Request body: {"keys": ["BLG52", "SOF46"]}
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final MunicipalityMetricsService municipalityMetricsService;
+    private final ChitalishteService chitalishteService;
+
+    /**
+     * POST /api/municipalities/metrics:batchGet
+     * Get metrics for several municipalities by municipality_code
+     */
+    @PostMapping("/api/municipalities/metrics:batchGet")
+    public ResponseEntity<BatchGetResponseDTO<MunicipalityMetricsDTO>> batchGetMetrics(
+            @RequestBody BatchGetRequestDTO request) {
+
+        log.info("POST /api/municipalities/metrics:batchGet - {} keys",
+                request.getKeys() != null ? request.getKeys().size() : 0);
+
+        return ResponseEntity.ok(municipalityMetricsService.getMetricsBatch(request.getKeys()));
+    }
+
+    /**
+     * POST /api/chitalishta:batchGet
+     * Get several chitalishta by registration number
+     */
+    @PostMapping("/api/chitalishta:batchGet")
+    public ResponseEntity<BatchGetResponseDTO<ChitalishteDTO>> batchGetChitalishta(
+            @RequestBody BatchGetRequestDTO request) {
+
+        log.info("POST /api/chitalishta:batchGet - {} keys",
+                request.getKeys() != null ? request.getKeys().size() : 0);
+
+        return ResponseEntity.ok(chitalishteService.getChitalishtaBatch(request.getKeys()));
+    }
+}
@@ -1,6 +1,9 @@
 package bg.chitalishte.controller;
 
 import bg.chitalishte.dto.ChitalishteDTO;
+import bg.chitalishte.dto.ChitalishteSeriesDTO;
+import bg.chitalishte.dto.CursorPageDTO;
+import bg.chitalishte.dto.MunicipalityChitalishtaSummaryDTO;
 import bg.chitalishte.service.ChitalishteService;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.RequiredArgsConstructor;
@@ -44,6 +47,25 @@ public class ChitalishteController {
         return ResponseEntity.ok(chitalishta);
     }
 
+    /**
+     * GET /api/chitalishta/cursor
+     * Get chitalishta with keyset pagination (constant cost per page, no total count)
+     * sortBy: name, regN or town; pass nextCursor from the previous response to continue
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<ChitalishteDTO>> getChitalishtaPage(
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) String cursor) {
+
+        log.info("GET /api/chitalishta/cursor - sortBy: {}, direction: {}, size: {}", sortBy, direction, size);
+
+        CursorPageDTO<ChitalishteDTO> page = chitalishteService.getChitalishtaPage(sortBy, direction, size, cursor);
+
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * GET /api/chitalishta/{id}
      * Get chitalishte by ID
@@ -70,19 +92,53 @@ public class ChitalishteController {
         return ResponseEntity.ok(chitalishte);
     }
 
+    /**
+     * GET /api/chitalishta/{regN}/series?fields=totalMembers,libraryUsers
+     * Selected year data fields across all years as parallel arrays (for charts)
+     */
+    @GetMapping("/{regN}/series")
+    public ResponseEntity<ChitalishteSeriesDTO> getChitalishteSeries(
+            @PathVariable String regN,
+            @RequestParam List<String> fields) {
+
+        log.info("GET /api/chitalishta/{}/series - fields: {}", regN, fields);
+
+        ChitalishteSeriesDTO series = chitalishteService.getSeries(regN, fields);
+
+        return ResponseEntity.ok(series);
+    }
+
+    /**
+     * GET /api/chitalishta/slug/{slug}
+     * Get chitalishte by slug
+     */
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<ChitalishteDTO> getChitalishteBySlug(@PathVariable String slug) {
+        log.info("GET /api/chitalishta/slug/{}", slug);
+
+        ChitalishteDTO chitalishte = chitalishteService.getChitalishteBySlug(slug);
+
+        return ResponseEntity.ok(chitalishte);
+    }
+
     /**
      * GET /api/chitalishta/search
-     * Search chitalishta by name
+     * Fuzzy search chitalishta by name, town or settlement (ranked, at most 100 results)
+     * Total number of matches is returned in X-Total-Count
      */
     @GetMapping("/search")
     public ResponseEntity<List<ChitalishteDTO>> searchChitalishta(
-            @RequestParam String query) {
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
 
-        log.info("GET /api/chitalishta/search?query={}", query);
+        log.info("GET /api/chitalishta/search?query={}&page={}&size={}", query, page, size);
 
-        List<ChitalishteDTO> chitalishta = chitalishteService.searchChitalishta(query);
+        Page<ChitalishteDTO> chitalishta = chitalishteService.searchChitalishta(query, page, size);
 
-        return ResponseEntity.ok(chitalishta);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(chitalishta.getTotalElements()))
+                .body(chitalishta.getContent());
     }
 
     /**
@@ -100,6 +156,19 @@ public class ChitalishteController {
         return ResponseEntity.ok(chitalishta);
     }
 
+    /**
+     * GET /api/chitalishta/municipality/{code}/summary
+     * Total, village and city counts, status breakdown and latest year in one call
+     */
+    @GetMapping("/municipality/{code}/summary")
+    public ResponseEntity<MunicipalityChitalishtaSummaryDTO> getMunicipalitySummary(@PathVariable String code) {
+        log.info("GET /api/chitalishta/municipality/{}/summary", code);
+
+        MunicipalityChitalishtaSummaryDTO summary = chitalishteService.getMunicipalitySummary(code);
+
+        return ResponseEntity.ok(summary);
+    }
+
     /**
      * GET /api/chitalishta/municipality/{code}/count
      * Count chitalishta in municipality
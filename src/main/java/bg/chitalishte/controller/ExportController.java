@@ -0,0 +1,54 @@
+package bg.chitalishte.controller;
+
+import bg.chitalishte.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for bulk data export
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    /**
+     * GET /api/export/{dataset}
+     * Stream a full dataset as NDJSON or CSV, optionally gzip-compressed
+     * Datasets: chitalishta, chitalishte-year-data, municipalities, municipality-year-data, metrics
+     * Example: GET /api/export/chitalishta?format=csv&gzip=true
+     */
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        log.info("GET /api/export/{} - format: {}, gzip: {}", dataset, format, gzip);
+
+        ExportService.Dataset exportDataset = ExportService.Dataset.fromKey(dataset);
+        ExportService.Format exportFormat = ExportService.Format.fromKey(format);
+
+        String filename = exportDataset.getKey() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8");
+
+        StreamingResponseBody body = out -> exportService.export(exportDataset, exportFormat, gzip, out);
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -1,15 +1,28 @@
 package bg.chitalishte.controller;
 
+import bg.chitalishte.config.AcceptEncoding;
+import bg.chitalishte.dto.GeoPointDTO;
+import bg.chitalishte.dto.ReverseGeocodeDTO;
+import bg.chitalishte.service.ChoroplethService;
+import bg.chitalishte.service.GeoJsonLayer;
 import bg.chitalishte.service.GeocodingService;
+import bg.chitalishte.service.ReverseGeocodingService;
+import bg.chitalishte.service.VectorTileService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -17,90 +30,166 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class GeocodingController {
 
+    private static final MediaType MVT_MEDIA_TYPE = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
     private final GeocodingService geocodingService;
+    private final ReverseGeocodingService reverseGeocodingService;
+    private final VectorTileService vectorTileService;
+    private final ChoroplethService choroplethService;
 
     /**
      * Get country boundary GeoJSON
      */
     @GetMapping(value = "/country", produces = "application/json")
-    public ResponseEntity<String> getCountryBoundary() {
+    public ResponseEntity<byte[]> getCountryBoundary(
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "geojson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Fetching country boundary GeoJSON");
-        String geoJson = geocodingService.getGeoJsonData("country");
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(geoJson);
+        return geoJsonLayer("country", zoom, tolerance, format, Optional.empty(), acceptEncoding);
     }
 
     /**
      * Get municipalities GeoJSON
      */
     @GetMapping(value = "/municipalities", produces = "application/json")
-    public ResponseEntity<String> getMunicipalities() {
+    public ResponseEntity<byte[]> getMunicipalities(
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "geojson") String format,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) String nuts3,
+            @RequestParam(required = false) String municipality,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Fetching municipalities GeoJSON");
-        String geoJson = geocodingService.getGeoJsonData("municipalities");
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(geoJson);
+        return geoJsonLayer("municipalities", zoom, tolerance, format,
+                GeoJsonLayer.Filter.of(bbox, nuts3, municipality), acceptEncoding);
     }
 
     /**
      * Get municipalities with names GeoJSON
      */
     @GetMapping(value = "/municipalities-names", produces = "application/json")
-    public ResponseEntity<String> getMunicipalitiesWithNames() {
+    public ResponseEntity<byte[]> getMunicipalitiesWithNames(
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "geojson") String format,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) String nuts3,
+            @RequestParam(required = false) String municipality,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Fetching municipalities with names GeoJSON");
-        String geoJson = geocodingService.getGeoJsonData("municipalities_names");
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(geoJson);
+        return geoJsonLayer("municipalities_names", zoom, tolerance, format,
+                GeoJsonLayer.Filter.of(bbox, nuts3, municipality), acceptEncoding);
     }
 
     /**
      * Get provinces GeoJSON
      */
     @GetMapping(value = "/provinces", produces = "application/json")
-    public ResponseEntity<String> getProvinces() {
+    public ResponseEntity<byte[]> getProvinces(
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "geojson") String format,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) String nuts3,
+            @RequestParam(required = false) String municipality,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Fetching provinces GeoJSON");
-        String geoJson = geocodingService.getGeoJsonData("provinces");
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(geoJson);
+        return geoJsonLayer("provinces", zoom, tolerance, format,
+                GeoJsonLayer.Filter.of(bbox, nuts3, municipality), acceptEncoding);
     }
 
     /**
      * Get settlements GeoJSON
      */
     @GetMapping(value = "/settlements", produces = "application/json")
-    public ResponseEntity<String> getSettlements() {
+    public ResponseEntity<byte[]> getSettlements(
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "geojson") String format,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) String nuts3,
+            @RequestParam(required = false) String municipality,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Fetching settlements GeoJSON");
-        String geoJson = geocodingService.getGeoJsonData("settlements");
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(geoJson);
+        return geoJsonLayer("settlements", zoom, tolerance, format,
+                GeoJsonLayer.Filter.of(bbox, nuts3, municipality), acceptEncoding);
     }
 
     /**
      * Get Sofia traffic subzones GeoJSON
      */
     @GetMapping(value = "/sofia-traffic", produces = "application/json")
-    public ResponseEntity<String> getSofiaTrafficZones() {
+    public ResponseEntity<byte[]> getSofiaTrafficZones(
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "geojson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Fetching Sofia traffic zones GeoJSON");
-        String geoJson = geocodingService.getGeoJsonData("sofiatraffic_subzones");
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(geoJson);
+        return geoJsonLayer("sofiatraffic_subzones", zoom, tolerance, format, Optional.empty(), acceptEncoding);
     }
 
     /**
      * Get Sofia police stations regions GeoJSON
      */
     @GetMapping(value = "/rpu-sofia", produces = "application/json")
-    public ResponseEntity<String> getRpuSofia() {
+    public ResponseEntity<byte[]> getRpuSofia(
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "geojson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Fetching RPU Sofia GeoJSON");
-        String geoJson = geocodingService.getGeoJsonData("rpu_sofia");
-        return ResponseEntity.ok()
+        return geoJsonLayer("rpu_sofia", zoom, tolerance, format, Optional.empty(), acceptEncoding);
+    }
+
+    /**
+     * Serve a pre-encoded layer, gzip when the client accepts it
+     * Content-Encoding is set here, so the container does not compress the body again
+     * ?zoom= (web map zoom) or ?tolerance= (degrees) selects a precomputed simplified variant,
+     * ?format=topojson the same variant as TopoJSON (shared borders stored once)
+     * ?bbox=minLon,minLat,maxLon,maxLat, ?nuts3= and ?municipality= (nuts4) return only the matching features,
+     * assembled from pre-serialized fragments and gzipped per request
+     */
+    private ResponseEntity<byte[]> geoJsonLayer(String type, Integer zoom, Double tolerance, String format,
+                                                Optional<GeoJsonLayer.Filter> filter, String acceptEncoding) {
+        Optional<GeoJsonLayer> layer = geocodingService.getGeoJsonLayer(type);
+        if (layer.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        byte[] body;
+        if (filter.isPresent()) {
+            if (GeoJsonLayer.Format.fromParam(format) != GeoJsonLayer.Format.GEOJSON) {
+                throw new IllegalArgumentException("bbox, nuts3 and municipality filters require format=geojson");
+            }
+            byte[] raw = layer.get().filter(filter.get(), zoom, tolerance);
+            body = gzip ? gzip(raw) : raw;
+        } else {
+            GeoJsonLayer.Encoded variant = layer.get().resolve(zoom, tolerance, GeoJsonLayer.Format.fromParam(format));
+            body = gzip ? variant.gzip() : variant.raw();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(geoJson);
+                .contentLength(body.length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
     }
 
     /**
@@ -139,34 +228,97 @@ public class GeocodingController {
         return ResponseEntity.ok(results);
     }
 
+    /**
+     * GET /api/geocoding/municipalities/choropleth?indicator=chitalishtaPer10kResidents&classes=5
+     * Municipalities GeoJSON with the indicator value and quantile class joined into each feature
+     * The stream is gzipped on the fly when the client accepts it
+     */
+    @GetMapping("/municipalities/choropleth")
+    public ResponseEntity<StreamingResponseBody> getMunicipalityChoropleth(
+            @RequestParam String indicator,
+            @RequestParam(defaultValue = "5") int classes,
+            @RequestParam(required = false) Integer zoom,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Fetching municipality choropleth: indicator={}, classes={}, zoom={}", indicator, classes, zoom);
+        ChoroplethService.Choropleth choropleth = choroplethService.getChoropleth(indicator, classes, zoom);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!AcceptEncoding.acceptsGzip(acceptEncoding)) {
+            return response.body(choropleth::writeTo);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    GZIPOutputStream gzip = new GZIPOutputStream(out);
+                    choropleth.writeTo(gzip);
+                    gzip.finish();
+                });
+    }
+
     /**
      * Get municipality by NUTS4 code
      */
     @GetMapping("/municipalities/{nuts4}")
-    public ResponseEntity<String> getMunicipalityByCode(@PathVariable String nuts4) {
+    public ResponseEntity<byte[]> getMunicipalityByCode(@PathVariable String nuts4) {
         log.info("Fetching municipality by NUTS4 code: {}", nuts4);
-        String geoJson = geocodingService.getMunicipalityByCode(nuts4);
-        if (geoJson != null) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(geoJson);
-        }
-        return ResponseEntity.notFound().build();
+        return geocodingService.getMunicipalityByCode(nuts4)
+                .map(feature -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(feature))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Get province by NUTS3 code
      */
     @GetMapping("/provinces/{nuts3}")
-    public ResponseEntity<String> getProvinceByCode(@PathVariable String nuts3) {
+    public ResponseEntity<byte[]> getProvinceByCode(@PathVariable String nuts3) {
         log.info("Fetching province by NUTS3 code: {}", nuts3);
-        String geoJson = geocodingService.getProvinceByCode(nuts3);
-        if (geoJson != null) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(geoJson);
+        return geocodingService.getProvinceByCode(nuts3)
+                .map(feature -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(feature))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/geocoding/tiles/{layer}/{z}/{x}/{y}.mvt
+     * Mapbox Vector Tile of a layer (e.g. /api/geocoding/tiles/municipalities/7/72/47.mvt), 204 when empty
+     */
+    @GetMapping("/tiles/{layer}/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getVectorTile(@PathVariable String layer, @PathVariable int z,
+                                                @PathVariable int x, @PathVariable int y) {
+        log.info("Fetching vector tile {}/{}/{}/{}", layer, z, x, y);
+        byte[] tile = vectorTileService.getTile(layer, z, x, y);
+        if (tile.length == 0) {
+            return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.notFound().build();
+        return ResponseEntity.ok()
+                .contentType(MVT_MEDIA_TYPE)
+                .contentLength(tile.length)
+                .body(tile);
+    }
+
+    /**
+     * GET /api/geocoding/reverse?lat=42.6977&lon=23.3219
+     * Settlement (EKATTE), municipality (NUTS4) and province (NUTS3) containing the point
+     */
+    @GetMapping("/reverse")
+    public ResponseEntity<ReverseGeocodeDTO> reverseGeocode(@RequestParam double lat, @RequestParam double lon) {
+        log.info("Reverse geocoding: lat={}, lon={}", lat, lon);
+        return ResponseEntity.ok(reverseGeocodingService.reverse(lat, lon));
+    }
+
+    /**
+     * POST /api/geocoding/reverse/batch
+     * Reverse geocode up to 1000 points, results in request order
+     * Example: [{"lat": 42.6977, "lon": 23.3219}, {"lat": 42.1354, "lon": 24.7453}]
+     */
+    @PostMapping("/reverse/batch")
+    public ResponseEntity<List<ReverseGeocodeDTO>> reverseGeocodeBatch(@RequestBody List<GeoPointDTO> points) {
+        log.info("Reverse geocoding batch: {} points", points.size());
+        return ResponseEntity.ok(reverseGeocodingService.reverseBatch(points));
     }
 
     /**
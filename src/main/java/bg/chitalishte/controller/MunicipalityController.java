@@ -2,9 +2,14 @@ package bg.chitalishte.controller;
 
 import bg.chitalishte.dto.ChitalishteDTO;
 import bg.chitalishte.dto.MunicipalityDTO;
+import bg.chitalishte.dto.MunicipalityMetricRankDTO;
 import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import bg.chitalishte.dto.MunicipalityMetricsHistoryDTO;
+import bg.chitalishte.dto.MunicipalityYearMetricsDTO;
 import bg.chitalishte.service.MunicipalityMetricsService;
+import bg.chitalishte.service.MunicipalityRankingService;
 import bg.chitalishte.service.MunicipalityService;
+import bg.chitalishte.service.MunicipalityYearMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -24,6 +29,8 @@ public class MunicipalityController {
 
     private final MunicipalityService municipalityService;
     private final MunicipalityMetricsService municipalityMetricsService;
+    private final MunicipalityRankingService municipalityRankingService;
+    private final MunicipalityYearMetricsService municipalityYearMetricsService;
 
     /**
      * GET /api/municipalities
@@ -48,16 +55,23 @@ public class MunicipalityController {
 
     /**
      * GET /api/municipalities/search
-     * Search municipalities by query
+     * Fuzzy search municipalities by name (ranked, at most 100 results)
+     * Total number of matches is returned in X-Total-Count
      * Example: GET /api/municipalities/search?q=благоевград
      */
     @GetMapping("/search")
-    public ResponseEntity<List<MunicipalityDTO>> searchMunicipalities(@RequestParam String q) {
-        log.info("GET /api/municipalities/search?q={}", q);
+    public ResponseEntity<List<MunicipalityDTO>> searchMunicipalities(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
 
-        List<MunicipalityDTO> municipalities = municipalityService.searchMunicipalities(q);
+        log.info("GET /api/municipalities/search?q={}&page={}&size={}", q, page, size);
 
-        return ResponseEntity.ok(municipalities);
+        Page<MunicipalityDTO> municipalities = municipalityService.searchMunicipalities(q, page, size);
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(municipalities.getTotalElements()))
+                .body(municipalities.getContent());
     }
 
     /**
@@ -107,4 +121,46 @@ public class MunicipalityController {
                     return ResponseEntity.notFound().build();
                 });
     }
+
+    /**
+     * GET /api/municipalities/{code}/metrics/history
+     * Get metrics of every recorded calculation run for a municipality
+     * Example: GET /api/municipalities/BLG52/metrics/history
+     */
+    @GetMapping("/{code}/metrics/history")
+    public ResponseEntity<List<MunicipalityMetricsHistoryDTO>> getMetricsHistory(@PathVariable String code) {
+        log.info("GET /api/municipalities/{}/metrics/history", code);
+
+        List<MunicipalityMetricsHistoryDTO> history = municipalityMetricsService.getMetricsHistory(code);
+
+        return ResponseEntity.ok(history);
+    }
+
+    /**
+     * GET /api/municipalities/{code}/metrics/years
+     * Get precomputed metrics for every data year of a municipality (time series)
+     * Example: GET /api/municipalities/BLG52/metrics/years
+     */
+    @GetMapping("/{code}/metrics/years")
+    public ResponseEntity<List<MunicipalityYearMetricsDTO>> getYearMetrics(@PathVariable String code) {
+        log.info("GET /api/municipalities/{}/metrics/years", code);
+
+        List<MunicipalityYearMetricsDTO> years = municipalityYearMetricsService.getYearMetrics(code);
+
+        return ResponseEntity.ok(years);
+    }
+
+    /**
+     * GET /api/municipalities/{code}/metrics/ranks
+     * Get national and district rank, percentile and z-score of every indicator
+     * Example: GET /api/municipalities/BLG52/metrics/ranks
+     */
+    @GetMapping("/{code}/metrics/ranks")
+    public ResponseEntity<List<MunicipalityMetricRankDTO>> getMetricRanks(@PathVariable String code) {
+        log.info("GET /api/municipalities/{}/metrics/ranks", code);
+
+        List<MunicipalityMetricRankDTO> ranks = municipalityRankingService.getRanks(code);
+
+        return ResponseEntity.ok(ranks);
+    }
 }
\ No newline at end of file
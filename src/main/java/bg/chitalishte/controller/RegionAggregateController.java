@@ -0,0 +1,59 @@
+package bg.chitalishte.controller;
+
+import bg.chitalishte.dto.RegionAggregateDTO;
+import bg.chitalishte.entity.RegionLevel;
+import bg.chitalishte.service.RegionAggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for NUTS / national roll-up aggregates
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/regions")
+@RequiredArgsConstructor
+public class RegionAggregateController {
+
+    private final RegionAggregateService regionAggregateService;
+
+    /**
+     * GET /api/regions
+     * Get all aggregates of a level (NATIONAL, NUTS1, NUTS2, NUTS3)
+     * Example: GET /api/regions?level=NUTS3
+     */
+    @GetMapping
+    public ResponseEntity<List<RegionAggregateDTO>> getAggregates(
+            @RequestParam(defaultValue = "NUTS3") RegionLevel level) {
+
+        log.info("GET /api/regions?level={}", level);
+
+        List<RegionAggregateDTO> aggregates = regionAggregateService.getAggregates(level);
+
+        return ResponseEntity.ok(aggregates);
+    }
+
+    /**
+     * GET /api/regions/{level}/{code}
+     * Get a single aggregate
+     * Example: GET /api/regions/NUTS3/BLG
+     */
+    @GetMapping("/{level}/{code}")
+    public ResponseEntity<RegionAggregateDTO> getAggregate(
+            @PathVariable RegionLevel level,
+            @PathVariable String code) {
+
+        log.info("GET /api/regions/{}/{}", level, code);
+
+        return regionAggregateService.getAggregate(level, code)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    log.warn("Region aggregate not found: {} {}", level, code);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+}
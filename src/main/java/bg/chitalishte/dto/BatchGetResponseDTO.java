@@ -0,0 +1,21 @@
+package bg.chitalishte.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a batch lookup: found items keyed by the requested key (request order), plus keys not found
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetResponseDTO<T> {
+    private Map<String, T> items;
+    private List<String> missing;
+}
@@ -0,0 +1,23 @@
+package bg.chitalishte.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time series of chitalishte year data as parallel arrays
+ * series.get(field).get(i) is the value of the field in years.get(i) (null when not reported)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChitalishteSeriesDTO {
+    private String regN;
+    private List<Integer> years;
+    private Map<String, List<Number>> series;
+}
@@ -0,0 +1,15 @@
+package bg.chitalishte.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoPointDTO {
+    private Double lat;
+    private Double lon;
+}
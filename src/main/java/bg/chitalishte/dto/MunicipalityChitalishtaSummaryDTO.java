@@ -0,0 +1,21 @@
+package bg.chitalishte.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MunicipalityChitalishtaSummaryDTO {
+    private String municipalityCode;
+    private long total;
+    private long village;
+    private long city;
+    private Map<String, Long> statusCounts;
+    private Integer latestYear;
+}
@@ -0,0 +1,27 @@
+package bg.chitalishte.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MunicipalityMetricRankDTO {
+    private String indicator;
+    private BigDecimal value;
+    private Integer nationalRank;
+    private Integer nationalCount;
+    private BigDecimal nationalPercentile;
+    @JsonProperty("zScore")
+    private BigDecimal zScore;
+    private String districtCode;
+    private Integer districtRank;
+    private Integer districtCount;
+    private BigDecimal districtPercentile;
+}
@@ -0,0 +1,20 @@
+package bg.chitalishte.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MunicipalityMetricsHistoryDTO {
+    private UUID runId;
+    private Integer referenceYear;
+    private LocalDateTime calculatedAt;
+    private MunicipalityMetricsDTO metrics;
+}
@@ -0,0 +1,19 @@
+package bg.chitalishte.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MunicipalityYearMetricsDTO {
+    private String municipalityCode;
+    private Integer year;
+    private LocalDateTime calculatedAt;
+    private MunicipalityMetricsDTO metrics;
+}
@@ -0,0 +1,36 @@
+package bg.chitalishte.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionAggregateDTO {
+    private String level;
+    private String code;
+    private String name;
+    private Integer municipalitiesCount;
+    private Integer totalChitalishta;
+    private Integer villageChitalishta;
+    private Integer cityChitalishta;
+    private Integer population;
+    private Integer populationUnder15;
+    private Integer populationOver65;
+    private BigDecimal stateSubsidyAmount;
+    private Integer additionalPositions;
+    private BigDecimal totalRevenueThousands;
+    private BigDecimal totalExpensesThousands;
+    private Integer totalStaff;
+    private Integer secretariesCount;
+    private Integer uniqueEmploymentContracts;
+    private BigDecimal chitalishtaPer10kResidents;
+    private BigDecimal stateSubsidyPerCapita;
+    private LocalDateTime calculatedAt;
+}
@@ -0,0 +1,21 @@
+package bg.chitalishte.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Administrative units containing a point (codes are omitted when the point is outside every polygon)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReverseGeocodeDTO {
+    private Double lat;
+    private Double lon;
+    private String ekatte;            // Settlement
+    private String municipalityCode;  // NUTS4
+    private String provinceCode;      // NUTS3
+}
@@ -119,6 +119,16 @@ public class Chitalishte {
     @Column(name = "national_list", length = 500)
     private String nationalList;
 
+    // ========== ПОСЛЕДНИ ГОДИШНИ ДАННИ (денормализирани) ==========
+
+    // Година на последните годишни данни - поддържа се от импорта
+    @Column(name = "latest_year")
+    private Integer latestYear;
+
+    // Статус от последните годишни данни (колона BP)
+    @Column(name = "latest_status", length = 100)
+    private String latestStatus;
+
     // Връзка с годишни данни
     @OneToMany(mappedBy = "chitalishte", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
@@ -137,6 +147,16 @@ public class Chitalishte {
                 .orElse(null);
     }
 
+    /**
+     * Keep latest_year/latest_status in sync when year data is imported
+     */
+    public void updateLatestYearData(ChitalishteYearData data) {
+        if (latestYear == null || data.getYear() >= latestYear) {
+            latestYear = data.getYear();
+            latestStatus = data.getStatus();
+        }
+    }
+
     public ChitalishteYearData getLatestYearData() {
         return yearData.stream()
                 .max(Comparator.comparing(ChitalishteYearData::getYear))
@@ -0,0 +1,71 @@
+package bg.chitalishte.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Rank, percentile and z-score of one indicator for one municipality
+ * Recalculated together with municipality_metrics on every metrics run
+ *
+ * Ранг 1 = най-висока стойност на показателя
+ */
+@Entity
+@Table(name = "municipality_metric_ranks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_metric_rank_indicator",
+                columnNames = {"municipality_code", "indicator"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MunicipalityMetricRank {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "municipality_code", length = 10, nullable = false)
+    private String municipalityCode;
+
+    @Column(name = "district_code", length = 10)
+    private String districtCode;
+
+    // Ключ на показателя (поле от MunicipalityMetricsDTO)
+    @Column(name = "indicator", length = 60, nullable = false)
+    private String indicator;
+
+    @Column(name = "indicator_value", precision = 15, scale = 2)
+    private BigDecimal value;
+
+    // ========== НАЦИОНАЛНО КЛАСИРАНЕ ==========
+
+    @Column(name = "national_rank")
+    private Integer nationalRank;
+
+    // Брой общини със стойност на показателя
+    @Column(name = "national_count")
+    private Integer nationalCount;
+
+    @Column(name = "national_percentile", precision = 5, scale = 2)
+    private BigDecimal nationalPercentile;
+
+    // (стойност - средно) / стандартно отклонение, по всички общини
+    @Column(name = "z_score", precision = 10, scale = 4)
+    private BigDecimal zScore;
+
+    // ========== КЛАСИРАНЕ В ОБЛАСТТА ==========
+
+    @Column(name = "district_rank")
+    private Integer districtRank;
+
+    @Column(name = "district_count")
+    private Integer districtCount;
+
+    @Column(name = "district_percentile", precision = 5, scale = 2)
+    private BigDecimal districtPercentile;
+}
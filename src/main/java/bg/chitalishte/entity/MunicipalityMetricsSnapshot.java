@@ -0,0 +1,131 @@
+package bg.chitalishte.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Append-only snapshot of municipality metrics, written once per metrics run
+ * Key: (municipality_code, reference_year, run_id) - rows are never updated
+ *
+ * Индикаторите са копие на MunicipalityMetrics към момента на изчислението
+ */
+@Entity
+@Table(name = "municipality_metrics_history",
+        uniqueConstraints = @UniqueConstraint(name = "uk_metrics_history_run",
+                columnNames = {"municipality_code", "reference_year", "run_id"}),
+        indexes = @Index(name = "idx_metrics_history_lookup",
+                columnList = "municipality_code, reference_year, calculated_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MunicipalityMetricsSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // ========== КЛЮЧ НА СНИМКАТА ==========
+
+    // Код на община (бизнес ключ, без FK - историята остава и при пре-импорт)
+    @Column(name = "municipality_code", length = 10, nullable = false)
+    private String municipalityCode;
+
+    // Референтна година на изчислението (НСИ)
+    @Column(name = "reference_year", nullable = false)
+    private Integer referenceYear;
+
+    // Идентификатор на изпълнението - общ за всички общини в един run
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Column(name = "calculated_at", nullable = false)
+    private LocalDateTime calculatedAt;
+
+    // ========== ОСНОВНА ИНФОРМАЦИЯ ==========
+
+    @Column(name = "total_chitalishta")
+    private Integer totalChitalishta;
+
+    @Column(name = "village_chitalishta")
+    private Integer villageChitalishta;
+
+    @Column(name = "city_chitalishta")
+    private Integer cityChitalishta;
+
+    @Column(name = "state_subsidy_amount", precision = 15, scale = 2)
+    private BigDecimal stateSubsidyAmount;
+
+    @Column(name = "state_subsidy_per_capita", precision = 10, scale = 2)
+    private BigDecimal stateSubsidyPerCapita;
+
+    @Column(name = "additional_positions")
+    private Integer additionalPositions;
+
+    // ========== ПРИХОДИ И РАЗХОДИ ==========
+
+    @Column(name = "revenue_from_subsidies_percent", precision = 10, scale = 2)
+    private BigDecimal revenueFromSubsidiesPercent;
+
+    @Column(name = "revenue_from_rent_percent", precision = 10, scale = 2)
+    private BigDecimal revenueFromRentPercent;
+
+    @Column(name = "revenue_from_other_percent", precision = 10, scale = 2)
+    private BigDecimal revenueFromOtherPercent;
+
+    @Column(name = "expenses_for_salaries_percent", precision = 10, scale = 2)
+    private BigDecimal expensesForSalariesPercent;
+
+    @Column(name = "expenses_other_percent", precision = 10, scale = 2)
+    private BigDecimal expensesOtherPercent;
+
+    // ========== ПЕРСОНАЛ ==========
+
+    @Column(name = "total_staff")
+    private Integer totalStaff;
+
+    @Column(name = "unique_employment_contracts")
+    private Integer uniqueEmploymentContracts;
+
+    @Column(name = "staff_higher_education_percent", precision = 10, scale = 2)
+    private BigDecimal staffHigherEducationPercent;
+
+    @Column(name = "staff_secondary_education_percent", precision = 10, scale = 2)
+    private BigDecimal staffSecondaryEducationPercent;
+
+    @Column(name = "secretaries_count")
+    private Integer secretariesCount;
+
+    @Column(name = "secretaries_higher_education_percent", precision = 10, scale = 2)
+    private BigDecimal secretariesHigherEducationPercent;
+
+    @Column(name = "average_insurance_income", precision = 10, scale = 2)
+    private BigDecimal averageInsuranceIncome;
+
+    @Column(name = "chitalishta_no_training_percent", precision = 10, scale = 2)
+    private BigDecimal chitalishtaNoTrainingPercent;
+
+    // ========== ПО НАСЕЛЕНИЕ ==========
+
+    @Column(name = "chitalishta_per_10k_residents", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer10kResidents;
+
+    @Column(name = "chitalishta_per_1k_children_under_15", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer1kChildrenUnder15;
+
+    @Column(name = "chitalishta_per_1k_students", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer1kStudents;
+
+    @Column(name = "chitalishta_per_1k_kindergarten", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer1kKindergarten;
+
+    @Column(name = "chitalishta_per_1k_elderly", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer1kElderly;
+}
@@ -0,0 +1,126 @@
+package bg.chitalishte.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Municipality metrics computed for a single data year
+ * Key: (municipality_code, year) - one row per year present in the source data
+ *
+ * Всички данни (НСИ, НАП, регистър) се вземат от една и съща година
+ */
+@Entity
+@Table(name = "municipality_year_metrics",
+        uniqueConstraints = @UniqueConstraint(name = "uk_municipality_year_metrics",
+                columnNames = {"municipality_code", "year"}),
+        indexes = @Index(name = "idx_municipality_year_metrics_year", columnList = "year"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MunicipalityYearMetrics {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // ========== КЛЮЧ ==========
+
+    // Код на община (бизнес ключ, без FK - редовете се преизчисляват изцяло)
+    @Column(name = "municipality_code", length = 10, nullable = false)
+    private String municipalityCode;
+
+    // Година на данните
+    @Column(name = "year", nullable = false)
+    private Integer year;
+
+    @Column(name = "calculated_at", nullable = false)
+    private LocalDateTime calculatedAt;
+
+    // ========== ОСНОВНА ИНФОРМАЦИЯ ==========
+
+    @Column(name = "total_chitalishta")
+    private Integer totalChitalishta;
+
+    @Column(name = "village_chitalishta")
+    private Integer villageChitalishta;
+
+    @Column(name = "city_chitalishta")
+    private Integer cityChitalishta;
+
+    @Column(name = "state_subsidy_amount", precision = 15, scale = 2)
+    private BigDecimal stateSubsidyAmount;
+
+    @Column(name = "state_subsidy_per_capita", precision = 10, scale = 2)
+    private BigDecimal stateSubsidyPerCapita;
+
+    @Column(name = "additional_positions")
+    private Integer additionalPositions;
+
+    // ========== ПРИХОДИ И РАЗХОДИ ==========
+
+    @Column(name = "revenue_from_subsidies_percent", precision = 10, scale = 2)
+    private BigDecimal revenueFromSubsidiesPercent;
+
+    @Column(name = "revenue_from_rent_percent", precision = 10, scale = 2)
+    private BigDecimal revenueFromRentPercent;
+
+    @Column(name = "revenue_from_other_percent", precision = 10, scale = 2)
+    private BigDecimal revenueFromOtherPercent;
+
+    @Column(name = "expenses_for_salaries_percent", precision = 10, scale = 2)
+    private BigDecimal expensesForSalariesPercent;
+
+    @Column(name = "expenses_other_percent", precision = 10, scale = 2)
+    private BigDecimal expensesOtherPercent;
+
+    // ========== ПЕРСОНАЛ ==========
+
+    @Column(name = "total_staff")
+    private Integer totalStaff;
+
+    @Column(name = "unique_employment_contracts")
+    private Integer uniqueEmploymentContracts;
+
+    @Column(name = "staff_higher_education_percent", precision = 10, scale = 2)
+    private BigDecimal staffHigherEducationPercent;
+
+    @Column(name = "staff_secondary_education_percent", precision = 10, scale = 2)
+    private BigDecimal staffSecondaryEducationPercent;
+
+    @Column(name = "secretaries_count")
+    private Integer secretariesCount;
+
+    @Column(name = "secretaries_higher_education_percent", precision = 10, scale = 2)
+    private BigDecimal secretariesHigherEducationPercent;
+
+    @Column(name = "average_insurance_income", precision = 10, scale = 2)
+    private BigDecimal averageInsuranceIncome;
+
+    @Column(name = "chitalishta_no_training_percent", precision = 10, scale = 2)
+    private BigDecimal chitalishtaNoTrainingPercent;
+
+    // ========== ПО НАСЕЛЕНИЕ ==========
+
+    @Column(name = "chitalishta_per_10k_residents", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer10kResidents;
+
+    @Column(name = "chitalishta_per_1k_children_under_15", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer1kChildrenUnder15;
+
+    @Column(name = "chitalishta_per_1k_students", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer1kStudents;
+
+    @Column(name = "chitalishta_per_1k_kindergarten", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer1kKindergarten;
+
+    @Column(name = "chitalishta_per_1k_elderly", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer1kElderly;
+}
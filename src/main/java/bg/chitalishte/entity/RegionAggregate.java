@@ -0,0 +1,105 @@
+package bg.chitalishte.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Roll-up of municipality data to NUTS3 (област), NUTS2, NUTS1 and national level
+ * Composite key: (level, code)
+ *
+ * Rows are written with INSERT ... ON CONFLICT by RegionAggregateService
+ */
+@Entity
+@Table(name = "region_aggregates")
+@IdClass(RegionAggregateId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionAggregate {
+
+    // ========== COMPOSITE KEY ==========
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "level", length = 10, nullable = false)
+    private RegionLevel level;
+
+    // NUTS код на групата (BG за цялата страна)
+    @Id
+    @Column(name = "code", length = 10, nullable = false)
+    private String code;
+
+    // Име (област за NUTS3, България за NATIONAL)
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "municipalities_count")
+    private Integer municipalitiesCount;
+
+    // ========== ЧИТАЛИЩА ==========
+
+    @Column(name = "total_chitalishta")
+    private Integer totalChitalishta;
+
+    @Column(name = "village_chitalishta")
+    private Integer villageChitalishta;
+
+    @Column(name = "city_chitalishta")
+    private Integer cityChitalishta;
+
+    // ========== НАСЕЛЕНИЕ (Преброяване 2021) ==========
+
+    @Column(name = "population")
+    private Integer population;
+
+    @Column(name = "population_under_15")
+    private Integer populationUnder15;
+
+    @Column(name = "population_over_65")
+    private Integer populationOver65;
+
+    // ========== ФИНАНСИ И ПЕРСОНАЛ ==========
+
+    @Column(name = "state_subsidy_amount", precision = 15, scale = 2)
+    private BigDecimal stateSubsidyAmount;
+
+    @Column(name = "additional_positions")
+    private Integer additionalPositions;
+
+    // НСИ, хил. лв
+    @Column(name = "total_revenue_thousands", precision = 15, scale = 2)
+    private BigDecimal totalRevenueThousands;
+
+    // НСИ, хил. лв
+    @Column(name = "total_expenses_thousands", precision = 15, scale = 2)
+    private BigDecimal totalExpensesThousands;
+
+    @Column(name = "total_staff")
+    private Integer totalStaff;
+
+    @Column(name = "secretaries_count")
+    private Integer secretariesCount;
+
+    @Column(name = "unique_employment_contracts")
+    private Integer uniqueEmploymentContracts;
+
+    // ========== ОТНОСИТЕЛНИ ПОКАЗАТЕЛИ ==========
+
+    // Формула: (SUM(V) / SUM(DS)) × 10,000
+    @Column(name = "chitalishta_per_10k_residents", precision = 10, scale = 1)
+    private BigDecimal chitalishtaPer10kResidents;
+
+    // Формула: SUM(субсидия) / SUM(DS)
+    @Column(name = "state_subsidy_per_capita", precision = 10, scale = 2)
+    private BigDecimal stateSubsidyPerCapita;
+
+    @Column(name = "calculated_at")
+    private LocalDateTime calculatedAt;
+}
@@ -0,0 +1,18 @@
+package bg.chitalishte.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite key for RegionAggregate
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionAggregateId implements Serializable {
+    private RegionLevel level;
+    private String code;
+}
@@ -0,0 +1,37 @@
+package bg.chitalishte.entity;
+
+/**
+ * Administrative level of a roll-up aggregate
+ * Column is the municipalities column that identifies the group (null = whole country)
+ */
+public enum RegionLevel {
+
+    NATIONAL(null),
+    NUTS1("nuts1"),
+    NUTS2("nuts2"),
+    NUTS3("nuts3");
+
+    public static final String NATIONAL_CODE = "BG";
+
+    private final String column;
+
+    RegionLevel(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Group code of a municipality at this level
+     */
+    public String codeOf(Municipality municipality) {
+        return switch (this) {
+            case NATIONAL -> NATIONAL_CODE;
+            case NUTS1 -> municipality.getNuts1();
+            case NUTS2 -> municipality.getNuts2();
+            case NUTS3 -> municipality.getNuts3();
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package bg.chitalishte.event;
+
+import java.util.Set;
+
+/**
+ * Published after rebuilt GeoJSON layers are swapped into GeoJsonLayerStore - a file reload, or the
+ * simplified variants of the startup layers becoming available
+ * Listeners holding data derived from a layer (indexes, tiles, prepared features) rebuild it
+ */
+public record GeoJsonLayersReloadedEvent(Set<String> layers) {
+}
@@ -0,0 +1,10 @@
+package bg.chitalishte.event;
+
+import java.util.UUID;
+
+/**
+ * Published at the end of every metrics run (standalone or as the last step of an import)
+ * Listeners that touch derived read models should react after the transaction commits
+ */
+public record MetricsRecalculatedEvent(UUID runId, int municipalitiesCount) {
+}
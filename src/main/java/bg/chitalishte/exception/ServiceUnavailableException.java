@@ -0,0 +1,11 @@
+package bg.chitalishte.exception;
+
+/**
+ * Exception thrown when data needed for a response is still being prepared
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
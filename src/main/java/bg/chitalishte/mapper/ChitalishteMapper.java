@@ -2,7 +2,7 @@ package bg.chitalishte.mapper;
 
 import bg.chitalishte.dto.ChitalishteDTO;
 import bg.chitalishte.entity.Chitalishte;
-import bg.chitalishte.entity.ChitalishteYearData;
+import bg.chitalishte.repository.projection.ChitalishteListView;
 import org.springframework.stereotype.Component;
 
 /**
@@ -17,8 +17,6 @@ public class ChitalishteMapper {
             return null;
         }
 
-        ChitalishteYearData latestData = entity.getLatestYearData();
-
         return ChitalishteDTO.builder()
                 .id(entity.getId())
                 .regN(entity.getRegN())
@@ -29,9 +27,30 @@ public class ChitalishteMapper {
                 .settlementNorm(entity.getSettlementNorm())
                 .villageCity(entity.getVillageCity())
                 .uic(entity.getUic())
-                .status(latestData != null ? latestData.getStatus() : null)
-                .latestYear(latestData != null ? latestData.getYear() : null)
+                .status(entity.getLatestStatus())
+                .latestYear(entity.getLatestYear())
                 .slug(entity.getSlug())
                 .build();
     }
+
+    public ChitalishteDTO toDTO(ChitalishteListView view) {
+        if (view == null) {
+            return null;
+        }
+
+        return ChitalishteDTO.builder()
+                .id(view.getId())
+                .regN(view.getRegN())
+                .name(view.getName())
+                .town(view.getTown())
+                .address(view.getAddress())
+                .phone(view.getPhone())
+                .settlementNorm(view.getSettlementNorm())
+                .villageCity(view.getVillageCity())
+                .uic(view.getUic())
+                .status(view.getStatus())
+                .latestYear(view.getLatestYear())
+                .slug(view.getSlug())
+                .build();
+    }
 }
\ No newline at end of file
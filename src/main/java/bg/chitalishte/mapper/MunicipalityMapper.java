@@ -2,6 +2,7 @@ package bg.chitalishte.mapper;
 
 import bg.chitalishte.dto.MunicipalityDTO;
 import bg.chitalishte.entity.Municipality;
+import bg.chitalishte.repository.projection.MunicipalityListView;
 import org.springframework.stereotype.Component;
 
 /**
@@ -31,4 +32,25 @@ public class MunicipalityMapper {
                 .totalChitalishta(entity.getChitalishta() != null ? entity.getChitalishta().size() : 0)
                 .build();
     }
+
+    public MunicipalityDTO toDTO(MunicipalityListView view) {
+        if (view == null) {
+            return null;
+        }
+
+        return MunicipalityDTO.builder()
+                .id(view.getId())
+                .municipalityCode(view.getMunicipalityCode())
+                .municipality(view.getMunicipality())
+                .municipalityNorm(view.getMunicipalityNorm())
+                .district(view.getDistrict())
+                .districtCode(view.getDistrictCode())
+                .nuts1(view.getNuts1())
+                .nuts2(view.getNuts2())
+                .nuts3(view.getNuts3())
+                .mrrbCategory(view.getMrrbCategory())
+                .municipalityPopulation(view.getMunicipalityPopulation())
+                .totalChitalishta(view.getTotalChitalishta() != null ? view.getTotalChitalishta().intValue() : 0)
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,10 +1,18 @@
 package bg.chitalishte.mapper;
 
+import bg.chitalishte.dto.MunicipalityMetricRankDTO;
 import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import bg.chitalishte.dto.MunicipalityMetricsHistoryDTO;
+import bg.chitalishte.dto.MunicipalityYearMetricsDTO;
+import bg.chitalishte.entity.MunicipalityMetricRank;
 import bg.chitalishte.entity.MunicipalityMetrics;
+import bg.chitalishte.entity.MunicipalityMetricsSnapshot;
+import bg.chitalishte.entity.MunicipalityYearMetrics;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Mapper for MunicipalityMetrics entity to MunicipalityMetricsDTO
@@ -48,4 +56,174 @@ public class MunicipalityMetricsMapper {
                 .uniqueEmploymentContracts(entity.getUniqueEmploymentContracts())
                 .build();
     }
-}
\ No newline at end of file
+
+    public MunicipalityMetricsSnapshot toSnapshot(MunicipalityMetrics entity, UUID runId,
+                                                  int referenceYear, LocalDateTime calculatedAt) {
+        return MunicipalityMetricsSnapshot.builder()
+                .municipalityCode(entity.getMunicipality().getMunicipalityCode())
+                .referenceYear(referenceYear)
+                .runId(runId)
+                .calculatedAt(calculatedAt)
+                .totalChitalishta(entity.getTotalChitalishta())
+                .villageChitalishta(entity.getVillageChitalishta())
+                .cityChitalishta(entity.getCityChitalishta())
+                .stateSubsidyAmount(entity.getStateSubsidyAmount())
+                .stateSubsidyPerCapita(entity.getStateSubsidyPerCapita())
+                .additionalPositions(entity.getAdditionalPositions())
+                .revenueFromSubsidiesPercent(entity.getRevenueFromSubsidiesPercent())
+                .revenueFromRentPercent(entity.getRevenueFromRentPercent())
+                .revenueFromOtherPercent(entity.getRevenueFromOtherPercent())
+                .expensesForSalariesPercent(entity.getExpensesForSalariesPercent())
+                .expensesOtherPercent(entity.getExpensesOtherPercent())
+                .totalStaff(entity.getTotalStaff())
+                .uniqueEmploymentContracts(entity.getUniqueEmploymentContracts())
+                .staffHigherEducationPercent(entity.getStaffHigherEducationPercent())
+                .staffSecondaryEducationPercent(entity.getStaffSecondaryEducationPercent())
+                .secretariesCount(entity.getSecretariesCount())
+                .secretariesHigherEducationPercent(entity.getSecretariesHigherEducationPercent())
+                .averageInsuranceIncome(entity.getAverageInsuranceIncome())
+                .chitalishtaNoTrainingPercent(entity.getChitalishtaNoTrainingPercent())
+                .chitalishtaPer10kResidents(entity.getChitalishtaPer10kResidents())
+                .chitalishtaPer1kChildrenUnder15(entity.getChitalishtaPer1kChildrenUnder15())
+                .chitalishtaPer1kStudents(entity.getChitalishtaPer1kStudents())
+                .chitalishtaPer1kKindergarten(entity.getChitalishtaPer1kKindergarten())
+                .chitalishtaPer1kElderly(entity.getChitalishtaPer1kElderly())
+                .build();
+    }
+
+    public MunicipalityMetricsHistoryDTO toHistoryDTO(MunicipalityMetricsSnapshot snapshot) {
+        if (snapshot == null) {
+            return null;
+        }
+
+        MunicipalityMetricsDTO metrics = MunicipalityMetricsDTO.builder()
+                .id(snapshot.getId())
+                .totalChitalishta(snapshot.getTotalChitalishta())
+                .villageChitalishta(snapshot.getVillageChitalishta())
+                .cityChitalishta(snapshot.getCityChitalishta())
+                .stateSubsidyAmount(snapshot.getStateSubsidyAmount())
+                .stateSubsidyPerCapita(snapshot.getStateSubsidyPerCapita())
+                .additionalPositions(snapshot.getAdditionalPositions() != null ?
+                        BigDecimal.valueOf(snapshot.getAdditionalPositions()) : null)
+                .revenueFromSubsidiesPercent(snapshot.getRevenueFromSubsidiesPercent())
+                .revenueFromRentPercent(snapshot.getRevenueFromRentPercent())
+                .revenueFromOtherPercent(snapshot.getRevenueFromOtherPercent())
+                .expensesForSalariesPercent(snapshot.getExpensesForSalariesPercent())
+                .expensesOtherPercent(snapshot.getExpensesOtherPercent())
+                .totalStaff(snapshot.getTotalStaff())
+                .staffHigherEducationPercent(snapshot.getStaffHigherEducationPercent())
+                .staffSecondaryEducationPercent(snapshot.getStaffSecondaryEducationPercent())
+                .secretariesCount(snapshot.getSecretariesCount())
+                .secretariesHigherEducationPercent(snapshot.getSecretariesHigherEducationPercent())
+                .averageInsuranceIncome(snapshot.getAverageInsuranceIncome())
+                .chitalishtaNoTrainingPercent(snapshot.getChitalishtaNoTrainingPercent())
+                .chitalishtaPer10kResidents(snapshot.getChitalishtaPer10kResidents())
+                .chitalishtaPer1kChildrenUnder15(snapshot.getChitalishtaPer1kChildrenUnder15())
+                .chitalishtaPer1kStudents(snapshot.getChitalishtaPer1kStudents())
+                .chitalishtaPer1kKindergarten(snapshot.getChitalishtaPer1kKindergarten())
+                .chitalishtaPer1kElderly(snapshot.getChitalishtaPer1kElderly())
+                .uniqueEmploymentContracts(snapshot.getUniqueEmploymentContracts())
+                .build();
+
+        return MunicipalityMetricsHistoryDTO.builder()
+                .runId(snapshot.getRunId())
+                .referenceYear(snapshot.getReferenceYear())
+                .calculatedAt(snapshot.getCalculatedAt())
+                .metrics(metrics)
+                .build();
+    }
+
+    public MunicipalityYearMetrics toYearMetrics(MunicipalityMetrics entity, String municipalityCode,
+                                                 int year, LocalDateTime calculatedAt) {
+        return MunicipalityYearMetrics.builder()
+                .municipalityCode(municipalityCode)
+                .year(year)
+                .calculatedAt(calculatedAt)
+                .totalChitalishta(entity.getTotalChitalishta())
+                .villageChitalishta(entity.getVillageChitalishta())
+                .cityChitalishta(entity.getCityChitalishta())
+                .stateSubsidyAmount(entity.getStateSubsidyAmount())
+                .stateSubsidyPerCapita(entity.getStateSubsidyPerCapita())
+                .additionalPositions(entity.getAdditionalPositions())
+                .revenueFromSubsidiesPercent(entity.getRevenueFromSubsidiesPercent())
+                .revenueFromRentPercent(entity.getRevenueFromRentPercent())
+                .revenueFromOtherPercent(entity.getRevenueFromOtherPercent())
+                .expensesForSalariesPercent(entity.getExpensesForSalariesPercent())
+                .expensesOtherPercent(entity.getExpensesOtherPercent())
+                .totalStaff(entity.getTotalStaff())
+                .uniqueEmploymentContracts(entity.getUniqueEmploymentContracts())
+                .staffHigherEducationPercent(entity.getStaffHigherEducationPercent())
+                .staffSecondaryEducationPercent(entity.getStaffSecondaryEducationPercent())
+                .secretariesCount(entity.getSecretariesCount())
+                .secretariesHigherEducationPercent(entity.getSecretariesHigherEducationPercent())
+                .averageInsuranceIncome(entity.getAverageInsuranceIncome())
+                .chitalishtaNoTrainingPercent(entity.getChitalishtaNoTrainingPercent())
+                .chitalishtaPer10kResidents(entity.getChitalishtaPer10kResidents())
+                .chitalishtaPer1kChildrenUnder15(entity.getChitalishtaPer1kChildrenUnder15())
+                .chitalishtaPer1kStudents(entity.getChitalishtaPer1kStudents())
+                .chitalishtaPer1kKindergarten(entity.getChitalishtaPer1kKindergarten())
+                .chitalishtaPer1kElderly(entity.getChitalishtaPer1kElderly())
+                .build();
+    }
+
+    public MunicipalityYearMetricsDTO toYearMetricsDTO(MunicipalityYearMetrics yearMetrics) {
+        if (yearMetrics == null) {
+            return null;
+        }
+
+        MunicipalityMetricsDTO metrics = MunicipalityMetricsDTO.builder()
+                .id(yearMetrics.getId())
+                .totalChitalishta(yearMetrics.getTotalChitalishta())
+                .villageChitalishta(yearMetrics.getVillageChitalishta())
+                .cityChitalishta(yearMetrics.getCityChitalishta())
+                .stateSubsidyAmount(yearMetrics.getStateSubsidyAmount())
+                .stateSubsidyPerCapita(yearMetrics.getStateSubsidyPerCapita())
+                .additionalPositions(yearMetrics.getAdditionalPositions() != null ?
+                        BigDecimal.valueOf(yearMetrics.getAdditionalPositions()) : null)
+                .revenueFromSubsidiesPercent(yearMetrics.getRevenueFromSubsidiesPercent())
+                .revenueFromRentPercent(yearMetrics.getRevenueFromRentPercent())
+                .revenueFromOtherPercent(yearMetrics.getRevenueFromOtherPercent())
+                .expensesForSalariesPercent(yearMetrics.getExpensesForSalariesPercent())
+                .expensesOtherPercent(yearMetrics.getExpensesOtherPercent())
+                .totalStaff(yearMetrics.getTotalStaff())
+                .staffHigherEducationPercent(yearMetrics.getStaffHigherEducationPercent())
+                .staffSecondaryEducationPercent(yearMetrics.getStaffSecondaryEducationPercent())
+                .secretariesCount(yearMetrics.getSecretariesCount())
+                .secretariesHigherEducationPercent(yearMetrics.getSecretariesHigherEducationPercent())
+                .averageInsuranceIncome(yearMetrics.getAverageInsuranceIncome())
+                .chitalishtaNoTrainingPercent(yearMetrics.getChitalishtaNoTrainingPercent())
+                .chitalishtaPer10kResidents(yearMetrics.getChitalishtaPer10kResidents())
+                .chitalishtaPer1kChildrenUnder15(yearMetrics.getChitalishtaPer1kChildrenUnder15())
+                .chitalishtaPer1kStudents(yearMetrics.getChitalishtaPer1kStudents())
+                .chitalishtaPer1kKindergarten(yearMetrics.getChitalishtaPer1kKindergarten())
+                .chitalishtaPer1kElderly(yearMetrics.getChitalishtaPer1kElderly())
+                .uniqueEmploymentContracts(yearMetrics.getUniqueEmploymentContracts())
+                .build();
+
+        return MunicipalityYearMetricsDTO.builder()
+                .municipalityCode(yearMetrics.getMunicipalityCode())
+                .year(yearMetrics.getYear())
+                .calculatedAt(yearMetrics.getCalculatedAt())
+                .metrics(metrics)
+                .build();
+    }
+
+    public MunicipalityMetricRankDTO toRankDTO(MunicipalityMetricRank rank) {
+        if (rank == null) {
+            return null;
+        }
+
+        return MunicipalityMetricRankDTO.builder()
+                .indicator(rank.getIndicator())
+                .value(rank.getValue())
+                .nationalRank(rank.getNationalRank())
+                .nationalCount(rank.getNationalCount())
+                .nationalPercentile(rank.getNationalPercentile())
+                .zScore(rank.getZScore())
+                .districtCode(rank.getDistrictCode())
+                .districtRank(rank.getDistrictRank())
+                .districtCount(rank.getDistrictCount())
+                .districtPercentile(rank.getDistrictPercentile())
+                .build();
+    }
+}
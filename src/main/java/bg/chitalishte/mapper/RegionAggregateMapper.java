@@ -0,0 +1,41 @@
+package bg.chitalishte.mapper;
+
+import bg.chitalishte.dto.RegionAggregateDTO;
+import bg.chitalishte.entity.RegionAggregate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper for RegionAggregate entity to RegionAggregateDTO
+ */
+@Component
+public class RegionAggregateMapper {
+
+    public RegionAggregateDTO toDTO(RegionAggregate entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        return RegionAggregateDTO.builder()
+                .level(entity.getLevel().name())
+                .code(entity.getCode())
+                .name(entity.getName())
+                .municipalitiesCount(entity.getMunicipalitiesCount())
+                .totalChitalishta(entity.getTotalChitalishta())
+                .villageChitalishta(entity.getVillageChitalishta())
+                .cityChitalishta(entity.getCityChitalishta())
+                .population(entity.getPopulation())
+                .populationUnder15(entity.getPopulationUnder15())
+                .populationOver65(entity.getPopulationOver65())
+                .stateSubsidyAmount(entity.getStateSubsidyAmount())
+                .additionalPositions(entity.getAdditionalPositions())
+                .totalRevenueThousands(entity.getTotalRevenueThousands())
+                .totalExpensesThousands(entity.getTotalExpensesThousands())
+                .totalStaff(entity.getTotalStaff())
+                .secretariesCount(entity.getSecretariesCount())
+                .uniqueEmploymentContracts(entity.getUniqueEmploymentContracts())
+                .chitalishtaPer10kResidents(entity.getChitalishtaPer10kResidents())
+                .stateSubsidyPerCapita(entity.getStateSubsidyPerCapita())
+                .calculatedAt(entity.getCalculatedAt())
+                .build();
+    }
+}
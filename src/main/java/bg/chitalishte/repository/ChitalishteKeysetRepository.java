@@ -0,0 +1,51 @@
+package bg.chitalishte.repository;
+
+import bg.chitalishte.dto.ChitalishteDTO;
+import bg.chitalishte.service.ChitalishteSortField;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination over chitalishta
+ * Pages are read with a row comparison on (COALESCE(column, ''), id), which is served by the
+ * matching expression index, so every page costs the same regardless of depth and no COUNT is issued
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChitalishteKeysetRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Rows strictly after (afterKey, afterId) in the given order; first page when afterId is null
+     */
+    public List<ChitalishteDTO> findPage(ChitalishteSortField field, boolean descending,
+                                         String afterKey, UUID afterId, int limit) {
+        String sortKey = "COALESCE(c." + field.getColumn() + ", '')";
+        String direction = descending ? "DESC" : "ASC";
+
+        StringBuilder sql = new StringBuilder("""
+                SELECT c.id, c.reg_n, c.name, c.town, c.address, c.phone, c.settlement_norm,
+                       c.village_city, c.uic, c.latest_status, c.latest_year, c.slug
+                FROM chitalishta c
+                """);
+
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (afterId != null) {
+            sql.append("WHERE (").append(sortKey).append(", c.id) ")
+                    .append(descending ? "<" : ">")
+                    .append(" (:afterKey, :afterId)\n");
+            params.addValue("afterKey", afterKey).addValue("afterId", afterId);
+        }
+        sql.append("ORDER BY ").append(sortKey).append(' ').append(direction)
+                .append(", c.id ").append(direction).append('\n')
+                .append("LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, FuzzySearchRepository.CHITALISHTE_ROW_MAPPER);
+    }
+}
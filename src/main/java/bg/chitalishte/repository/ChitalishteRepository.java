@@ -1,11 +1,18 @@
 package bg.chitalishte.repository;
 
 import bg.chitalishte.entity.Chitalishte;
+import bg.chitalishte.repository.projection.ChitalishteListView;
+import bg.chitalishte.repository.projection.ChitalishteSummaryRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,11 +20,23 @@ import java.util.UUID;
 @Repository
 public interface ChitalishteRepository extends JpaRepository<Chitalishte, UUID> {
 
+    String LIST_VIEW_SELECT = "SELECT c.id AS id, c.regN AS regN, c.name AS name, c.town AS town, " +
+            "c.address AS address, c.phone AS phone, c.settlementNorm AS settlementNorm, " +
+            "c.villageCity AS villageCity, c.uic AS uic, c.slug AS slug, " +
+            "c.latestStatus AS status, c.latestYear AS latestYear, " +
+            "c.municipality.municipalityCode AS municipalityCode " +
+            "FROM Chitalishte c ";
+
     /**
      * Find chitalishte by registration number (reg_n)
      */
     Optional<Chitalishte> findByRegN(String regN);
 
+    /**
+     * Find chitalishte by slug
+     */
+    Optional<Chitalishte> findBySlug(String slug);
+
     /**
      * Check if chitalishte exists by registration number
      */
@@ -54,6 +73,16 @@ public interface ChitalishteRepository extends JpaRepository<Chitalishte, UUID>
             "AND UPPER(c.villageCity) = 'ГРАД'")
     Long countCityChitalishta(@Param("municipalityCode") String municipalityCode);
 
+    /**
+     * Counts of a municipality grouped by village/city and latest status - one statement for the summary
+     */
+    @Query("SELECT UPPER(c.villageCity) AS villageCity, c.latestStatus AS status, " +
+            "COUNT(c) AS count, MAX(c.latestYear) AS latestYear " +
+            "FROM Chitalishte c " +
+            "WHERE c.municipality.municipalityCode = :municipalityCode " +
+            "GROUP BY UPPER(c.villageCity), c.latestStatus")
+    List<ChitalishteSummaryRow> summarizeByMunicipalityCode(@Param("municipalityCode") String municipalityCode);
+
     /**
      * Search chitalishta by name (case-insensitive, partial match)
      */
@@ -63,4 +92,39 @@ public interface ChitalishteRepository extends JpaRepository<Chitalishte, UUID>
     List<Chitalishte> searchByName(@Param("query") String query);
 
     List<Chitalishte> findAllBySlugIsNull();
-}
\ No newline at end of file
+
+    /**
+     * Chitalishta page with latest status/year - one statement per page, chitalishte_year_data is not touched
+     */
+    @Query(value = LIST_VIEW_SELECT,
+            countQuery = "SELECT COUNT(c) FROM Chitalishte c")
+    Page<ChitalishteListView> findAllListViews(Pageable pageable);
+
+    /**
+     * List rows for several registration numbers in one statement
+     */
+    @Query(LIST_VIEW_SELECT + "WHERE c.regN IN :regNs")
+    List<ChitalishteListView> findListViewsByRegNIn(@Param("regNs") Collection<String> regNs);
+
+    /**
+     * List rows of all chitalishta in a municipality
+     */
+    @Query(LIST_VIEW_SELECT +
+            "WHERE c.municipality.municipalityCode = :municipalityCode " +
+            "ORDER BY c.name")
+    List<ChitalishteListView> findListViewsByMunicipalityCode(@Param("municipalityCode") String municipalityCode);
+
+    /**
+     * Recompute latest_year/latest_status from chitalishte_year_data in one statement
+     * Only rows that actually differ are updated
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE chitalishta c SET latest_year = l.year, latest_status = l.status " +
+            "FROM (SELECT DISTINCT ON (chitalishte_id) chitalishte_id, year, status " +
+            "FROM chitalishte_year_data ORDER BY chitalishte_id, year DESC) l " +
+            "WHERE l.chitalishte_id = c.id " +
+            "AND (c.latest_year IS DISTINCT FROM l.year OR c.latest_status IS DISTINCT FROM l.status)",
+            nativeQuery = true)
+    int syncLatestYearData();
+}
@@ -0,0 +1,75 @@
+package bg.chitalishte.repository;
+
+import bg.chitalishte.entity.ChitalishteYearData;
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar reads of chitalishte_year_data for charts
+ * Only the requested columns are selected, one row per year, without hydrating the ~98-column entity
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChitalishteSeriesRepository {
+
+    /**
+     * Numeric fields of ChitalishteYearData (field name -> column), read from the entity mapping
+     * Doubles as the whitelist for the columns that may be put into SQL
+     */
+    public static final Map<String, String> NUMERIC_COLUMNS = numericColumns();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Year and the requested fields of every year of a chitalishte, ordered by year
+     * Each row is [year, value of fields[0], value of fields[1], ...]
+     */
+    public List<Object[]> findSeries(String regN, List<String> fields) {
+        StringBuilder sql = new StringBuilder("SELECT cyd.year");
+        for (String field : fields) {
+            String column = NUMERIC_COLUMNS.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported series field: " + field);
+            }
+            sql.append(", cyd.").append(column);
+        }
+        sql.append("\nFROM chitalishte_year_data cyd\n")
+                .append("WHERE cyd.reg_n = :regN\n")
+                .append("ORDER BY cyd.year");
+
+        int width = fields.size() + 1;
+        return jdbcTemplate.query(sql.toString(), new MapSqlParameterSource("regN", regN), (rs, rowNum) -> {
+            Object[] row = new Object[width];
+            for (int i = 0; i < width; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        });
+    }
+
+    private static Map<String, String> numericColumns() {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (Field field : ChitalishteYearData.class.getDeclaredFields()) {
+            Column column = field.getAnnotation(Column.class);
+            if (column == null || field.isAnnotationPresent(Id.class)) {
+                continue;
+            }
+            Class<?> type = field.getType();
+            if (type == Integer.class || type == Long.class || type == BigDecimal.class) {
+                columns.put(field.getName(), column.name());
+            }
+        }
+        return Collections.unmodifiableMap(columns);
+    }
+}
@@ -3,6 +3,7 @@ package bg.chitalishte.repository;
 import bg.chitalishte.entity.Chitalishte;
 import bg.chitalishte.entity.ChitalishteYearData;
 import bg.chitalishte.entity.ChitalishteYearDataId;
+import bg.chitalishte.repository.projection.MunicipalityYearCounts;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -51,4 +52,18 @@ public interface ChitalishteYearDataRepository extends JpaRepository<Chitalishte
             "AND cyd.year = :year " +
             "AND (cyd.trainingParticipation = 0 OR cyd.trainingParticipation IS NULL)")
     Long countChitalishtaWithNoTraining(@Param("municipalityCode") String municipalityCode, @Param("year") Integer year);
-}
\ No newline at end of file
+
+    /**
+     * Registry counts for every (municipality, year) in one pass
+     * Used by the per-year metrics engine instead of one count query per municipality and year
+     */
+    @Query("SELECT c.municipality.municipalityCode AS municipalityCode, cyd.year AS year, " +
+            "COUNT(cyd) AS totalChitalishta, " +
+            "SUM(CASE WHEN UPPER(c.villageCity) = 'СЕЛО' THEN 1 ELSE 0 END) AS villageChitalishta, " +
+            "SUM(CASE WHEN UPPER(c.villageCity) = 'ГРАД' THEN 1 ELSE 0 END) AS cityChitalishta, " +
+            "SUM(CASE WHEN cyd.trainingParticipation = 0 OR cyd.trainingParticipation IS NULL " +
+            "THEN 1 ELSE 0 END) AS noTrainingCount " +
+            "FROM ChitalishteYearData cyd JOIN cyd.chitalishte c " +
+            "GROUP BY c.municipality.municipalityCode, cyd.year")
+    List<MunicipalityYearCounts> countByMunicipalityAndYear();
+}
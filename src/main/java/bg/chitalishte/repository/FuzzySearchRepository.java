@@ -0,0 +1,144 @@
+package bg.chitalishte.repository;
+
+import bg.chitalishte.dto.ChitalishteDTO;
+import bg.chitalishte.dto.MunicipalityDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Typo-tolerant search backed by pg_trgm GIN indexes (see StartupDatabaseObjects)
+ * Matches by trigram word similarity (q <% column) or substring, ranked by best similarity
+ */
+@Repository
+@RequiredArgsConstructor
+public class FuzzySearchRepository {
+
+    private static final String CHITALISHTA_MATCH = """
+            FROM chitalishta c
+            WHERE lower(:q) <% lower(c.name)
+               OR lower(:q) <% lower(c.town)
+               OR lower(:q) <% lower(c.settlement_norm)
+               OR lower(c.name) LIKE :pattern
+               OR lower(c.town) LIKE :pattern
+               OR lower(c.settlement_norm) LIKE :pattern
+            """;
+
+    private static final String MUNICIPALITIES_MATCH = """
+            FROM municipalities m
+            WHERE lower(:q) <% lower(m.municipality)
+               OR lower(:q) <% lower(m.municipality_norm)
+               OR lower(m.municipality) LIKE :pattern
+               OR lower(m.municipality_norm) LIKE :pattern
+            """;
+
+    public static final RowMapper<ChitalishteDTO> CHITALISHTE_ROW_MAPPER = FuzzySearchRepository::mapChitalishte;
+    private static final RowMapper<MunicipalityDTO> MUNICIPALITY_ROW_MAPPER = FuzzySearchRepository::mapMunicipality;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Ranked chitalishta matches by name, town or settlement
+     */
+    public List<ChitalishteDTO> searchChitalishta(String query, int offset, int limit) {
+        String sql = """
+                SELECT c.id, c.reg_n, c.name, c.town, c.address, c.phone, c.settlement_norm,
+                       c.village_city, c.uic, c.latest_status, c.latest_year, c.slug,
+                       GREATEST(word_similarity(lower(:q), lower(c.name)),
+                                word_similarity(lower(:q), lower(c.town)),
+                                word_similarity(lower(:q), lower(c.settlement_norm))) AS score
+                """ + CHITALISHTA_MATCH + """
+                ORDER BY score DESC, c.name, c.id
+                LIMIT :limit OFFSET :offset
+                """;
+        return jdbcTemplate.query(sql, params(query, offset, limit), CHITALISHTE_ROW_MAPPER);
+    }
+
+    /**
+     * Number of chitalishta matches, counted up to the given cap
+     */
+    public int countChitalishta(String query, int cap) {
+        String sql = "SELECT COUNT(*) FROM (SELECT 1 " + CHITALISHTA_MATCH + " LIMIT :limit) t";
+        Integer count = jdbcTemplate.queryForObject(sql, params(query, 0, cap), Integer.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Ranked municipality matches by name
+     */
+    public List<MunicipalityDTO> searchMunicipalities(String query, int offset, int limit) {
+        String sql = """
+                SELECT m.id, m.municipality_code, m.municipality, m.municipality_norm, m.district,
+                       m.district_code, m.nuts1, m.nuts2, m.nuts3, m.mrrb_category, m.municipality_population,
+                       (SELECT COUNT(*) FROM chitalishta c WHERE c.municipality_id = m.id) AS total_chitalishta,
+                       GREATEST(word_similarity(lower(:q), lower(m.municipality)),
+                                word_similarity(lower(:q), lower(m.municipality_norm))) AS score
+                """ + MUNICIPALITIES_MATCH + """
+                ORDER BY score DESC, m.municipality, m.id
+                LIMIT :limit OFFSET :offset
+                """;
+        return jdbcTemplate.query(sql, params(query, offset, limit), MUNICIPALITY_ROW_MAPPER);
+    }
+
+    /**
+     * Number of municipality matches, counted up to the given cap
+     */
+    public int countMunicipalities(String query, int cap) {
+        String sql = "SELECT COUNT(*) FROM (SELECT 1 " + MUNICIPALITIES_MATCH + " LIMIT :limit) t";
+        Integer count = jdbcTemplate.queryForObject(sql, params(query, 0, cap), Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private MapSqlParameterSource params(String query, int offset, int limit) {
+        return new MapSqlParameterSource()
+                .addValue("q", query)
+                .addValue("pattern", "%" + escapeLike(query.toLowerCase()) + "%")
+                .addValue("offset", offset)
+                .addValue("limit", limit);
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static ChitalishteDTO mapChitalishte(ResultSet rs, int rowNum) throws SQLException {
+        return ChitalishteDTO.builder()
+                .id(rs.getObject("id", UUID.class))
+                .regN(rs.getString("reg_n"))
+                .name(rs.getString("name"))
+                .town(rs.getString("town"))
+                .address(rs.getString("address"))
+                .phone(rs.getString("phone"))
+                .settlementNorm(rs.getString("settlement_norm"))
+                .villageCity(rs.getString("village_city"))
+                .uic(rs.getString("uic"))
+                .status(rs.getString("latest_status"))
+                .latestYear(rs.getObject("latest_year", Integer.class))
+                .slug(rs.getString("slug"))
+                .build();
+    }
+
+    private static MunicipalityDTO mapMunicipality(ResultSet rs, int rowNum) throws SQLException {
+        return MunicipalityDTO.builder()
+                .id(rs.getObject("id", UUID.class))
+                .municipalityCode(rs.getString("municipality_code"))
+                .municipality(rs.getString("municipality"))
+                .municipalityNorm(rs.getString("municipality_norm"))
+                .district(rs.getString("district"))
+                .districtCode(rs.getString("district_code"))
+                .nuts1(rs.getString("nuts1"))
+                .nuts2(rs.getString("nuts2"))
+                .nuts3(rs.getString("nuts3"))
+                .mrrbCategory(rs.getString("mrrb_category"))
+                .municipalityPopulation(rs.getObject("municipality_population", Integer.class))
+                .totalChitalishta(rs.getInt("total_chitalishta"))
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package bg.chitalishte.repository;
+
+import bg.chitalishte.entity.MunicipalityMetricRank;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MunicipalityMetricRankRepository extends JpaRepository<MunicipalityMetricRank, UUID> {
+
+    /**
+     * Find all indicator ranks for a municipality
+     */
+    List<MunicipalityMetricRank> findByMunicipalityCodeOrderByIndicator(String municipalityCode);
+}
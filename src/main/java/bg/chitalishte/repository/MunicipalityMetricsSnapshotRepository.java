@@ -0,0 +1,23 @@
+package bg.chitalishte.repository;
+
+import bg.chitalishte.entity.MunicipalityMetricsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MunicipalityMetricsSnapshotRepository extends JpaRepository<MunicipalityMetricsSnapshot, UUID> {
+
+    /**
+     * Full indicator history for a municipality
+     * Served by idx_metrics_history_lookup (municipality_code, reference_year, calculated_at)
+     */
+    @Query("SELECT s FROM MunicipalityMetricsSnapshot s " +
+            "WHERE s.municipalityCode = :municipalityCode " +
+            "ORDER BY s.referenceYear, s.calculatedAt")
+    List<MunicipalityMetricsSnapshot> findHistoryByMunicipalityCode(@Param("municipalityCode") String municipalityCode);
+}
@@ -0,0 +1,105 @@
+package bg.chitalishte.repository;
+
+import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to the municipality_metrics_view materialized view
+ * Rows map straight to MunicipalityMetricsDTO without entity hydration
+ */
+@Repository
+@RequiredArgsConstructor
+public class MunicipalityMetricsViewRepository {
+
+    public static final RowMapper<MunicipalityMetricsDTO> ROW_MAPPER = MunicipalityMetricsViewRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Find metrics by municipality code (unique index lookup)
+     */
+    public Optional<MunicipalityMetricsDTO> findByMunicipalityCode(String municipalityCode) {
+        List<MunicipalityMetricsDTO> rows = jdbcTemplate.query(
+                "SELECT * FROM municipality_metrics_view WHERE municipality_code = ?",
+                ROW_MAPPER, municipalityCode);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Metrics for several municipalities in one statement (= ANY(array)), keyed by municipality code
+     */
+    public Map<String, MunicipalityMetricsDTO> findByMunicipalityCodes(Collection<String> municipalityCodes) {
+        Map<String, MunicipalityMetricsDTO> metrics = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT * FROM municipality_metrics_view WHERE municipality_code = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("varchar", municipalityCodes.toArray()));
+            return ps;
+        }, rs -> {
+            metrics.put(rs.getString("municipality_code"), mapRow(rs, 0));
+        });
+        return metrics;
+    }
+
+    /**
+     * All metrics keyed by municipality code
+     */
+    public Map<String, MunicipalityMetricsDTO> findAllByMunicipalityCode() {
+        Map<String, MunicipalityMetricsDTO> metrics = new HashMap<>();
+        jdbcTemplate.query("SELECT * FROM municipality_metrics_view", rs -> {
+            metrics.put(rs.getString("municipality_code"), mapRow(rs, 0));
+        });
+        return metrics;
+    }
+
+    /**
+     * Rebuild the view without blocking concurrent readers
+     */
+    public void refresh() {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY municipality_metrics_view");
+    }
+
+    private static MunicipalityMetricsDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return MunicipalityMetricsDTO.builder()
+                .id(rs.getObject("metrics_id", UUID.class))
+                .municipalityName(rs.getString("municipality_name"))
+                .totalChitalishta(rs.getObject("total_chitalishta", Integer.class))
+                .villageChitalishta(rs.getObject("village_chitalishta", Integer.class))
+                .cityChitalishta(rs.getObject("city_chitalishta", Integer.class))
+                .stateSubsidyAmount(rs.getBigDecimal("state_subsidy_amount"))
+                .stateSubsidyPerCapita(rs.getBigDecimal("state_subsidy_per_capita"))
+                .additionalPositions(rs.getBigDecimal("additional_positions"))
+                .revenueFromSubsidiesPercent(rs.getBigDecimal("revenue_from_subsidies_percent"))
+                .revenueFromRentPercent(rs.getBigDecimal("revenue_from_rent_percent"))
+                .revenueFromOtherPercent(rs.getBigDecimal("revenue_from_other_percent"))
+                .expensesForSalariesPercent(rs.getBigDecimal("expenses_for_salaries_percent"))
+                .expensesOtherPercent(rs.getBigDecimal("expenses_other_percent"))
+                .totalStaff(rs.getObject("total_staff", Integer.class))
+                .staffHigherEducationPercent(rs.getBigDecimal("staff_higher_education_percent"))
+                .staffSecondaryEducationPercent(rs.getBigDecimal("staff_secondary_education_percent"))
+                .secretariesCount(rs.getObject("secretaries_count", Integer.class))
+                .secretariesHigherEducationPercent(rs.getBigDecimal("secretaries_higher_education_percent"))
+                .averageInsuranceIncome(rs.getBigDecimal("average_insurance_income"))
+                .chitalishtaNoTrainingPercent(rs.getBigDecimal("chitalishta_no_training_percent"))
+                .chitalishtaPer10kResidents(rs.getBigDecimal("chitalishta_per_10k_residents"))
+                .chitalishtaPer1kChildrenUnder15(rs.getBigDecimal("chitalishta_per_1k_children_under_15"))
+                .chitalishtaPer1kStudents(rs.getBigDecimal("chitalishta_per_1k_students"))
+                .chitalishtaPer1kKindergarten(rs.getBigDecimal("chitalishta_per_1k_kindergarten"))
+                .chitalishtaPer1kElderly(rs.getBigDecimal("chitalishta_per_1k_elderly"))
+                .uniqueEmploymentContracts(rs.getObject("unique_employment_contracts", Integer.class))
+                .build();
+    }
+}
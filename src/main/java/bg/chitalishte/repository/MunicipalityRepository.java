@@ -1,6 +1,9 @@
 package bg.chitalishte.repository;
 
 import bg.chitalishte.entity.Municipality;
+import bg.chitalishte.repository.projection.MunicipalityListView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +16,14 @@ import java.util.UUID;
 @Repository
 public interface MunicipalityRepository extends JpaRepository<Municipality, UUID> {
 
+    String LIST_VIEW_SELECT = "SELECT m.id AS id, m.municipalityCode AS municipalityCode, " +
+            "m.municipality AS municipality, m.municipalityNorm AS municipalityNorm, " +
+            "m.district AS district, m.districtCode AS districtCode, " +
+            "m.nuts1 AS nuts1, m.nuts2 AS nuts2, m.nuts3 AS nuts3, " +
+            "m.mrrbCategory AS mrrbCategory, m.municipalityPopulation AS municipalityPopulation, " +
+            "(SELECT COUNT(c) FROM Chitalishte c WHERE c.municipality = m) AS totalChitalishta " +
+            "FROM Municipality m ";
+
     /**
      * Find municipality by code (business key)
      */
@@ -30,4 +41,18 @@ public interface MunicipalityRepository extends JpaRepository<Municipality, UUID
             "LOWER(m.municipality) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(m.municipalityNorm) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Municipality> searchByName(@Param("query") String query);
-}
\ No newline at end of file
+
+    /**
+     * Municipalities page with chitalishta counts - one statement per page, no lazy collections
+     * Sortable by any projection alias (e.g. municipality, totalChitalishta)
+     */
+    @Query(value = LIST_VIEW_SELECT,
+            countQuery = "SELECT COUNT(m) FROM Municipality m")
+    Page<MunicipalityListView> findAllListViews(Pageable pageable);
+
+    /**
+     * Single municipality with chitalishta count
+     */
+    @Query(LIST_VIEW_SELECT + "WHERE m.municipalityCode = :municipalityCode")
+    Optional<MunicipalityListView> findListViewByMunicipalityCode(@Param("municipalityCode") String municipalityCode);
+}
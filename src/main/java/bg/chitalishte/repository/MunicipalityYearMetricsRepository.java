@@ -0,0 +1,22 @@
+package bg.chitalishte.repository;
+
+import bg.chitalishte.entity.MunicipalityYearMetrics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MunicipalityYearMetricsRepository extends JpaRepository<MunicipalityYearMetrics, UUID> {
+
+    /**
+     * Yearly metrics series for a municipality (oldest first)
+     */
+    List<MunicipalityYearMetrics> findByMunicipalityCodeOrderByYear(String municipalityCode);
+
+    /**
+     * Metrics of all municipalities for a single year
+     */
+    List<MunicipalityYearMetrics> findByYearOrderByMunicipalityCode(Integer year);
+}
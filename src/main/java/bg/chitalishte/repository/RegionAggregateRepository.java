@@ -0,0 +1,24 @@
+package bg.chitalishte.repository;
+
+import bg.chitalishte.entity.RegionAggregate;
+import bg.chitalishte.entity.RegionAggregateId;
+import bg.chitalishte.entity.RegionLevel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RegionAggregateRepository extends JpaRepository<RegionAggregate, RegionAggregateId> {
+
+    /**
+     * Find all aggregates of a level ordered by code
+     */
+    List<RegionAggregate> findByLevelOrderByCode(RegionLevel level);
+
+    /**
+     * Find aggregate by level and code
+     */
+    Optional<RegionAggregate> findByLevelAndCode(RegionLevel level, String code);
+}
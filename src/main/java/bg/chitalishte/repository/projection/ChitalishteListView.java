@@ -0,0 +1,35 @@
+package bg.chitalishte.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Chitalishte list row with status and year of the latest year data
+ */
+public interface ChitalishteListView {
+
+    UUID getId();
+
+    String getRegN();
+
+    String getName();
+
+    String getTown();
+
+    String getAddress();
+
+    String getPhone();
+
+    String getSettlementNorm();
+
+    String getVillageCity();
+
+    String getUic();
+
+    String getStatus();
+
+    Integer getLatestYear();
+
+    String getSlug();
+
+    String getMunicipalityCode();
+}
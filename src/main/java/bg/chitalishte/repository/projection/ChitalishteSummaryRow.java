@@ -0,0 +1,15 @@
+package bg.chitalishte.repository.projection;
+
+/**
+ * Chitalishta count per (village_city, latest_status) group of a municipality
+ */
+public interface ChitalishteSummaryRow {
+
+    String getVillageCity();
+
+    String getStatus();
+
+    Long getCount();
+
+    Integer getLatestYear();
+}
@@ -0,0 +1,33 @@
+package bg.chitalishte.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Municipality list row with the chitalishta count computed in the same statement
+ */
+public interface MunicipalityListView {
+
+    UUID getId();
+
+    String getMunicipalityCode();
+
+    String getMunicipality();
+
+    String getMunicipalityNorm();
+
+    String getDistrict();
+
+    String getDistrictCode();
+
+    String getNuts1();
+
+    String getNuts2();
+
+    String getNuts3();
+
+    String getMrrbCategory();
+
+    Integer getMunicipalityPopulation();
+
+    Long getTotalChitalishta();
+}
@@ -0,0 +1,19 @@
+package bg.chitalishte.repository.projection;
+
+/**
+ * Registry counts of chitalishta per municipality and year
+ */
+public interface MunicipalityYearCounts {
+
+    String getMunicipalityCode();
+
+    Integer getYear();
+
+    Long getTotalChitalishta();
+
+    Long getVillageChitalishta();
+
+    Long getCityChitalishta();
+
+    Long getNoTrainingCount();
+}
@@ -0,0 +1,65 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.BatchGetResponseDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Validation and result assembly for batch lookup endpoints
+ */
+public final class BatchKeys {
+
+    public static final int MAX_KEYS = 500;
+
+    private BatchKeys() {
+    }
+
+    /**
+     * Trimmed, de-duplicated keys in request order
+     */
+    public static List<String> normalize(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("keys must not be empty");
+        }
+
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (key != null && !key.isBlank()) {
+                distinct.add(key.trim());
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("keys must not be empty");
+        }
+        if (distinct.size() > MAX_KEYS) {
+            throw new IllegalArgumentException("At most " + MAX_KEYS + " keys are allowed, got " + distinct.size());
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Arrange resolved items in request order and list the keys that were not found
+     */
+    public static <T> BatchGetResponseDTO<T> toResponse(List<String> keys, Function<String, T> resolved) {
+        Map<String, T> items = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : keys) {
+            T item = resolved.apply(key);
+            if (item != null) {
+                items.put(key, item);
+            } else {
+                missing.add(key);
+            }
+        }
+        return BatchGetResponseDTO.<T>builder()
+                .items(items)
+                .missing(missing)
+                .build();
+    }
+}
@@ -0,0 +1,200 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.ChitalishteDTO;
+import bg.chitalishte.dto.MunicipalityDTO;
+import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Immutable read-only copy of the public catalog (municipalities, chitalishta, metrics)
+ * Built once by CatalogSnapshotService and replaced as a whole - never modified after construction
+ */
+public final class CatalogSnapshot {
+
+    // village_city values (compared upper-case, same as ChitalishteRepository count queries)
+    public static final String VILLAGE = "СЕЛО";
+    public static final String CITY = "ГРАД";
+
+    private static final Map<String, Function<MunicipalityDTO, Comparable<?>>> MUNICIPALITY_SORT_KEYS = Map.of(
+            "municipality", MunicipalityDTO::getMunicipality,
+            "municipalityCode", MunicipalityDTO::getMunicipalityCode,
+            "municipalityNorm", MunicipalityDTO::getMunicipalityNorm,
+            "district", MunicipalityDTO::getDistrict,
+            "districtCode", MunicipalityDTO::getDistrictCode,
+            "municipalityPopulation", MunicipalityDTO::getMunicipalityPopulation,
+            "totalChitalishta", MunicipalityDTO::getTotalChitalishta);
+
+    private static final Map<String, Function<ChitalishteDTO, Comparable<?>>> CHITALISHTE_SORT_KEYS = Map.of(
+            "name", ChitalishteDTO::getName,
+            "regN", ChitalishteDTO::getRegN,
+            "town", ChitalishteDTO::getTown,
+            "settlementNorm", ChitalishteDTO::getSettlementNorm,
+            "villageCity", ChitalishteDTO::getVillageCity,
+            "status", ChitalishteDTO::getStatus,
+            "latestYear", ChitalishteDTO::getLatestYear);
+
+    private final List<MunicipalityDTO> municipalities;
+    private final Map<String, MunicipalityDTO> municipalitiesByCode;
+    private final List<ChitalishteDTO> chitalishta;
+    private final Map<UUID, ChitalishteDTO> chitalishtaById;
+    private final Map<String, ChitalishteDTO> chitalishtaByRegN;
+    private final Map<String, ChitalishteDTO> chitalishtaBySlug;
+    private final Map<String, List<ChitalishteDTO>> chitalishtaByMunicipality;
+    private final Map<String, MunicipalityMetricsDTO> metricsByMunicipality;
+    private final LocalDateTime builtAt;
+
+    /**
+     * @param chitalishtaByMunicipality chitalishta keyed by municipality code, each list sorted by name
+     */
+    CatalogSnapshot(List<MunicipalityDTO> municipalities,
+                    List<ChitalishteDTO> chitalishta,
+                    Map<String, List<ChitalishteDTO>> chitalishtaByMunicipality,
+                    Map<String, MunicipalityMetricsDTO> metricsByMunicipality) {
+        this.municipalities = sortedCopy(municipalities, MunicipalityDTO::getMunicipality);
+        this.chitalishta = sortedCopy(chitalishta, ChitalishteDTO::getName);
+
+        Map<String, MunicipalityDTO> byCode = new HashMap<>();
+        this.municipalities.forEach(m -> byCode.put(m.getMunicipalityCode(), m));
+        this.municipalitiesByCode = Collections.unmodifiableMap(byCode);
+
+        Map<UUID, ChitalishteDTO> byId = new HashMap<>();
+        Map<String, ChitalishteDTO> byRegN = new HashMap<>();
+        Map<String, ChitalishteDTO> bySlug = new HashMap<>();
+        for (ChitalishteDTO c : this.chitalishta) {
+            byId.put(c.getId(), c);
+            byRegN.put(c.getRegN(), c);
+            if (c.getSlug() != null) {
+                bySlug.put(c.getSlug(), c);
+            }
+        }
+        this.chitalishtaById = Collections.unmodifiableMap(byId);
+        this.chitalishtaByRegN = Collections.unmodifiableMap(byRegN);
+        this.chitalishtaBySlug = Collections.unmodifiableMap(bySlug);
+
+        Map<String, List<ChitalishteDTO>> byMunicipality = new HashMap<>();
+        chitalishtaByMunicipality.forEach((code, list) ->
+                byMunicipality.put(code, sortedCopy(list, ChitalishteDTO::getName)));
+        this.chitalishtaByMunicipality = Collections.unmodifiableMap(byMunicipality);
+
+        this.metricsByMunicipality = Map.copyOf(metricsByMunicipality);
+        this.builtAt = LocalDateTime.now();
+    }
+
+    // ========== MUNICIPALITIES ==========
+
+    /**
+     * Page of municipalities, or empty if the sort property is not supported by the snapshot
+     */
+    public Optional<Page<MunicipalityDTO>> getMunicipalities(Pageable pageable) {
+        return page(municipalities, pageable, MUNICIPALITY_SORT_KEYS, "municipality");
+    }
+
+    public Optional<MunicipalityDTO> getMunicipality(String municipalityCode) {
+        return Optional.ofNullable(municipalitiesByCode.get(municipalityCode));
+    }
+
+    public Optional<MunicipalityMetricsDTO> getMetrics(String municipalityCode) {
+        return Optional.ofNullable(metricsByMunicipality.get(municipalityCode));
+    }
+
+    // ========== CHITALISHTA ==========
+
+    /**
+     * Page of chitalishta, or empty if the sort property is not supported by the snapshot
+     */
+    public Optional<Page<ChitalishteDTO>> getChitalishta(Pageable pageable) {
+        return page(chitalishta, pageable, CHITALISHTE_SORT_KEYS, "name");
+    }
+
+    public Optional<ChitalishteDTO> getChitalishteById(UUID id) {
+        return Optional.ofNullable(chitalishtaById.get(id));
+    }
+
+    public Optional<ChitalishteDTO> getChitalishteByRegN(String regN) {
+        return Optional.ofNullable(chitalishtaByRegN.get(regN));
+    }
+
+    public Optional<ChitalishteDTO> getChitalishteBySlug(String slug) {
+        return Optional.ofNullable(chitalishtaBySlug.get(slug));
+    }
+
+    /**
+     * Chitalishta of a municipality sorted by name (empty list for unknown codes)
+     */
+    public List<ChitalishteDTO> getChitalishtaByMunicipality(String municipalityCode) {
+        return chitalishtaByMunicipality.getOrDefault(municipalityCode, List.of());
+    }
+
+    /**
+     * Count chitalishta of a municipality with the given village_city value (VILLAGE or CITY)
+     */
+    public long countChitalishtaByVillageCity(String municipalityCode, String villageCity) {
+        return getChitalishtaByMunicipality(municipalityCode).stream()
+                .filter(c -> c.getVillageCity() != null && villageCity.equals(c.getVillageCity().toUpperCase()))
+                .count();
+    }
+
+    public int getMunicipalitiesCount() {
+        return municipalities.size();
+    }
+
+    public int getChitalishtaCount() {
+        return chitalishta.size();
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    // ========== HELPERS ==========
+
+    private static <T> Optional<Page<T>> page(List<T> source, Pageable pageable,
+                                              Map<String, Function<T, Comparable<?>>> sortKeys,
+                                              String defaultSort) {
+        List<T> ordered = source;
+
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        if (order != null && pageable.getSort().stream().count() > 1) {
+            return Optional.empty();
+        }
+        if (order != null && !(order.getProperty().equals(defaultSort) && order.isAscending())) {
+            Function<T, Comparable<?>> key = sortKeys.get(order.getProperty());
+            if (key == null) {
+                return Optional.empty();
+            }
+            Comparator<T> comparator = comparator(key);
+            ordered = new ArrayList<>(source);
+            ordered.sort(order.isAscending() ? comparator : comparator.reversed());
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), ordered.size());
+        int to = Math.min(from + pageable.getPageSize(), ordered.size());
+        return Optional.of(new PageImpl<>(ordered.subList(from, to), pageable, ordered.size()));
+    }
+
+    private static <T> List<T> sortedCopy(List<T> source, Function<T, Comparable<?>> key) {
+        List<T> copy = new ArrayList<>(source);
+        copy.sort(comparator(key));
+        return Collections.unmodifiableList(copy);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> comparator(Function<T, Comparable<?>> key) {
+        return Comparator.comparing(t -> (Comparable) key.apply(t),
+                Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,99 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.ChitalishteDTO;
+import bg.chitalishte.dto.MunicipalityDTO;
+import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import bg.chitalishte.event.MetricsRecalculatedEvent;
+import bg.chitalishte.mapper.ChitalishteMapper;
+import bg.chitalishte.mapper.MunicipalityMapper;
+import bg.chitalishte.repository.ChitalishteRepository;
+import bg.chitalishte.repository.MunicipalityMetricsViewRepository;
+import bg.chitalishte.repository.MunicipalityRepository;
+import bg.chitalishte.repository.projection.ChitalishteListView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current CatalogSnapshot and rebuilds it after startup and after every committed metrics run
+ * (the import always ends with a metrics run). Readers get the snapshot with a single volatile read;
+ * until the first build completes they fall back to the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private final MunicipalityRepository municipalityRepository;
+    private final ChitalishteRepository chitalishteRepository;
+    private final MunicipalityMetricsViewRepository metricsViewRepository;
+    private final MunicipalityMapper municipalityMapper;
+    private final ChitalishteMapper chitalishteMapper;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+
+    /**
+     * Current snapshot, empty until the first build
+     */
+    public Optional<CatalogSnapshot> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Runs after MunicipalityMetricsService#refreshReadModel so metrics come from the refreshed view
+     */
+    @Order(1)
+    @TransactionalEventListener
+    public void onMetricsRecalculated(MetricsRecalculatedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Build a new snapshot and swap it in atomically
+     * On failure the previous snapshot stays in place
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            List<MunicipalityDTO> municipalities = municipalityRepository.findAllListViews(Pageable.unpaged())
+                    .map(municipalityMapper::toDTO)
+                    .getContent();
+
+            List<ChitalishteDTO> chitalishta = new ArrayList<>();
+            Map<String, List<ChitalishteDTO>> byMunicipality = new HashMap<>();
+            for (ChitalishteListView view : chitalishteRepository.findAllListViews(Pageable.unpaged())) {
+                ChitalishteDTO dto = chitalishteMapper.toDTO(view);
+                chitalishta.add(dto);
+                byMunicipality.computeIfAbsent(view.getMunicipalityCode(), code -> new ArrayList<>()).add(dto);
+            }
+
+            Map<String, MunicipalityMetricsDTO> metrics = metricsViewRepository.findAllByMunicipalityCode();
+
+            CatalogSnapshot snapshot = new CatalogSnapshot(municipalities, chitalishta, byMunicipality, metrics);
+            current.set(snapshot);
+
+            log.info("Catalog snapshot rebuilt: {} municipalities, {} chitalishta, {} metrics in {} ms",
+                    snapshot.getMunicipalitiesCount(), snapshot.getChitalishtaCount(), metrics.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error rebuilding catalog snapshot, keeping previous one", e);
+        }
+    }
+}
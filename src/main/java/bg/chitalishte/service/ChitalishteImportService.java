@@ -13,7 +13,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -115,6 +114,10 @@ public class ChitalishteImportService {
             // After import, aggregate settlement data and calculate metrics
             log.info("=== POST-PROCESSING STARTED ===");
 
+// Step 0: Reconcile denormalized latest year data (covers rows imported before this run)
+            int latestUpdated = chitalishteRepository.syncLatestYearData();
+            log.info("✅ Latest year data synced for {} chitalishta", latestUpdated);
+
 // Step 1: Aggregate settlement data to municipalities
             log.info("Step 1: Aggregating settlement data to municipalities...");
             aggregationService.aggregateSettlementDataToMunicipalities();
@@ -140,7 +143,7 @@ public class ChitalishteImportService {
 
 // Step 3: Calculate other municipality metrics
             log.info("Step 3: Calculating other municipality metrics...");
-            calculateAllMetrics();
+            metricsService.calculateAllMetrics();
             log.info("✅ Metrics calculation completed");
 
             log.info("=== POST-PROCESSING COMPLETED ===");
@@ -457,6 +460,7 @@ public class ChitalishteImportService {
         yearData.setLibraryStaffTraining(parseInteger(getCellValue(row, 120)));    // Column DQ
 
         chitalishteYearDataRepository.save(yearData);
+        chitalishte.updateLatestYearData(yearData);
     }
 
     /**
@@ -538,26 +542,6 @@ public class ChitalishteImportService {
         return true;
     }
 
-    /**
-     * Calculate metrics for all municipalities
-     */
-    private void calculateAllMetrics() {
-        List<Municipality> municipalities = municipalityRepository.findAll();
-        int count = 0;
-
-        for (Municipality municipality : municipalities) {
-            try {
-                metricsService.calculateAndSaveMetrics(municipality);
-                count++;
-            } catch (Exception e) {
-                log.error("Error calculating metrics for municipality: {}",
-                        municipality.getMunicipalityCode(), e);
-            }
-        }
-
-        log.info("Calculated metrics for {} municipalities", count);
-    }
-
     /**
      * Helper method to get cell value as string
      */
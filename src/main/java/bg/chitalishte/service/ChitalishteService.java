@@ -1,10 +1,19 @@
 package bg.chitalishte.service;
 
+import bg.chitalishte.dto.BatchGetResponseDTO;
 import bg.chitalishte.dto.ChitalishteDTO;
+import bg.chitalishte.dto.ChitalishteSeriesDTO;
+import bg.chitalishte.dto.CursorPageDTO;
+import bg.chitalishte.dto.MunicipalityChitalishtaSummaryDTO;
 import bg.chitalishte.entity.Chitalishte;
 import bg.chitalishte.exception.ResourceNotFoundException;
 import bg.chitalishte.mapper.ChitalishteMapper;
+import bg.chitalishte.repository.ChitalishteKeysetRepository;
 import bg.chitalishte.repository.ChitalishteRepository;
+import bg.chitalishte.repository.ChitalishteSeriesRepository;
+import bg.chitalishte.repository.FuzzySearchRepository;
+import bg.chitalishte.repository.MunicipalityRepository;
+import bg.chitalishte.repository.projection.ChitalishteSummaryRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -12,10 +21,19 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -29,10 +47,19 @@ public class ChitalishteService {
 
     private final ChitalishteRepository chitalishteRepository;
     private final ChitalishteMapper chitalishteMapper;
+    private final FuzzySearchRepository fuzzySearchRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ChitalishteKeysetRepository keysetRepository;
+    private final ChitalishteSeriesRepository seriesRepository;
+    private final MunicipalityRepository municipalityRepository;
+
+    private static final int MAX_SERIES_FIELDS = 20;
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
 
     /**
      * Get all chitalishta with pagination
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ChitalishteDTO> getAllChitalishta(int page, int size, String sortBy, String direction) {
         log.info("Fetching chitalishta - page: {}, size: {}, sortBy: {}, direction: {}",
                 page, size, sortBy, direction);
@@ -40,19 +67,73 @@ public class ChitalishteService {
         Sort.Direction dir = direction.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(dir, sortBy));
 
-        Page<ChitalishteDTO> result = chitalishteRepository.findAll(pageable)
-                .map(chitalishteMapper::toDTO);
+        Page<ChitalishteDTO> result = catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.getChitalishta(pageable))
+                .orElseGet(() -> chitalishteRepository.findAllListViews(pageable)
+                        .map(chitalishteMapper::toDTO));
 
         log.info("Found {} chitalishta", result.getTotalElements());
         return result;
     }
 
+    /**
+     * Get chitalishta with keyset pagination
+     * The cursor encodes sort field, direction and the (sort key, id) of the last returned row;
+     * when a cursor is given it takes precedence over sortBy/direction
+     */
+    public CursorPageDTO<ChitalishteDTO> getChitalishtaPage(String sortBy, String direction, int size, String cursor) {
+        log.info("Fetching chitalishta keyset page - sortBy: {}, direction: {}, size: {}, cursor: {}",
+                sortBy, direction, size, cursor != null);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be >= 1");
+        }
+        int limit = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+
+        ChitalishteSortField field = ChitalishteSortField.fromKey(sortBy);
+        boolean descending = direction.equalsIgnoreCase("desc");
+        String afterKey = null;
+        UUID afterId = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            field = ChitalishteSortField.fromKey(parts[0]);
+            descending = "d".equals(parts[1]);
+            afterId = UUID.fromString(parts[2]);
+            afterKey = parts[3];
+        }
+
+        // One extra row tells whether there is a next page without a COUNT
+        List<ChitalishteDTO> rows = keysetRepository.findPage(field, descending, afterKey, afterId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<ChitalishteDTO> items = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ChitalishteDTO last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(field, descending, last.getId(), field.sortKeyOf(last));
+        }
+
+        return CursorPageDTO.<ChitalishteDTO>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
     /**
      * Get chitalishte by ID
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ChitalishteDTO getChitalishteById(UUID id) {
         log.info("Fetching chitalishte by id: {}", id);
 
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().getChitalishteById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Chitalishte", id.toString()));
+        }
+
         Chitalishte chitalishte = chitalishteRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Chitalishte not found with id: {}", id);
@@ -66,9 +147,16 @@ public class ChitalishteService {
     /**
      * Get chitalishte by registration number
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ChitalishteDTO getChitalishteByRegN(String regN) {
         log.info("Fetching chitalishte by reg_n: {}", regN);
 
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().getChitalishteByRegN(regN)
+                    .orElseThrow(() -> new ResourceNotFoundException("Chitalishte", regN));
+        }
+
         Chitalishte chitalishte = chitalishteRepository.findByRegN(regN)
                 .orElseThrow(() -> {
                     log.warn("Chitalishte not found with reg_n: {}", regN);
@@ -80,41 +168,159 @@ public class ChitalishteService {
     }
 
     /**
-     * Search chitalishta by name
+     * Get several chitalishta by registration number (snapshot, or a single query)
      */
-    public List<ChitalishteDTO> searchChitalishta(String query) {
-        log.info("Searching chitalishta with query: {}", query);
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public BatchGetResponseDTO<ChitalishteDTO> getChitalishtaBatch(List<String> regNs) {
+        List<String> keys = BatchKeys.normalize(regNs);
+        log.info("Fetching chitalishta batch for {} reg_n", keys.size());
+
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return BatchKeys.toResponse(keys, regN -> snapshot.get().getChitalishteByRegN(regN).orElse(null));
+        }
 
-        List<ChitalishteDTO> result = chitalishteRepository.searchByName(query).stream()
+        Map<String, ChitalishteDTO> found = chitalishteRepository.findListViewsByRegNIn(keys).stream()
                 .map(chitalishteMapper::toDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(ChitalishteDTO::getRegN, Function.identity()));
+        return BatchKeys.toResponse(keys, found::get);
+    }
+
+    /**
+     * Get chitalishte by slug
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ChitalishteDTO getChitalishteBySlug(String slug) {
+        log.info("Fetching chitalishte by slug: {}", slug);
+
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().getChitalishteBySlug(slug)
+                    .orElseThrow(() -> new ResourceNotFoundException("Chitalishte", slug));
+        }
+
+        return chitalishteRepository.findBySlug(slug)
+                .map(chitalishteMapper::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Chitalishte", slug));
+    }
+
+    /**
+     * Search chitalishta by name, town or settlement (typo-tolerant, ranked by similarity)
+     * Results are capped at SearchPages.MAX_RESULTS; total is the capped number of matches
+     */
+    public Page<ChitalishteDTO> searchChitalishta(String query, int page, int size) {
+        log.info("Searching chitalishta with query: {}, page: {}, size: {}", query, page, size);
 
-        log.info("Found {} chitalishta matching query: {}", result.size(), query);
+        Page<ChitalishteDTO> result = SearchPages.search(query, page, size,
+                fuzzySearchRepository::searchChitalishta, fuzzySearchRepository::countChitalishta);
+
+        log.info("Found {} chitalishta matching query: {}", result.getTotalElements(), query);
         return result;
     }
 
     /**
      * Get chitalishta by municipality code
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<ChitalishteDTO> getChitalishtaByMunicipality(String municipalityCode) {
         log.info("Fetching chitalishta for municipality: {}", municipalityCode);
 
-        List<ChitalishteDTO> result = chitalishteRepository
-                .findByMunicipalityMunicipalityCode(municipalityCode).stream()
-                .map(chitalishteMapper::toDTO)
-                .collect(Collectors.toList());
+        List<ChitalishteDTO> result = catalogSnapshotService.current()
+                .map(snapshot -> snapshot.getChitalishtaByMunicipality(municipalityCode))
+                .orElseGet(() -> chitalishteRepository
+                        .findListViewsByMunicipalityCode(municipalityCode).stream()
+                        .map(chitalishteMapper::toDTO)
+                        .collect(Collectors.toList()));
 
         log.info("Found {} chitalishta for municipality: {}", result.size(), municipalityCode);
         return result;
     }
 
+    /**
+     * Time series of selected year data fields of a chitalishte, as parallel arrays ordered by year
+     */
+    public ChitalishteSeriesDTO getSeries(String regN, List<String> fields) {
+        List<String> requested = fields == null ? List.of() : fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required, allowed: "
+                    + ChitalishteSeriesRepository.NUMERIC_COLUMNS.keySet());
+        }
+        if (requested.size() > MAX_SERIES_FIELDS) {
+            throw new IllegalArgumentException("At most " + MAX_SERIES_FIELDS + " fields are allowed");
+        }
+        log.info("Fetching series {} for chitalishte: {}", requested, regN);
+
+        List<Object[]> rows = seriesRepository.findSeries(regN, requested);
+        if (rows.isEmpty() && !chitalishteRepository.existsByRegN(regN)) {
+            throw new ResourceNotFoundException("Chitalishte", regN);
+        }
+
+        List<Integer> years = new ArrayList<>(rows.size());
+        Map<String, List<Number>> series = new LinkedHashMap<>();
+        for (String field : requested) {
+            series.put(field, new ArrayList<>(rows.size()));
+        }
+        for (Object[] row : rows) {
+            years.add(((Number) row[0]).intValue());
+            for (int i = 0; i < requested.size(); i++) {
+                series.get(requested.get(i)).add((Number) row[i + 1]);
+            }
+        }
+
+        return ChitalishteSeriesDTO.builder()
+                .regN(regN)
+                .years(years)
+                .series(series)
+                .build();
+    }
+
+    /**
+     * Summary of chitalishta in municipality: total, village, city, status breakdown and latest year
+     * Replaces the three count calls with one snapshot read or one GROUP BY query
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public MunicipalityChitalishtaSummaryDTO getMunicipalitySummary(String municipalityCode) {
+        log.info("Fetching chitalishta summary for municipality: {}", municipalityCode);
+
+        SummaryAccumulator summary = new SummaryAccumulator();
+
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            if (snapshot.get().getMunicipality(municipalityCode).isEmpty()) {
+                throw new ResourceNotFoundException("Municipality", municipalityCode);
+            }
+            for (ChitalishteDTO c : snapshot.get().getChitalishtaByMunicipality(municipalityCode)) {
+                summary.add(c.getVillageCity() != null ? c.getVillageCity().toUpperCase() : null,
+                        c.getStatus(), 1, c.getLatestYear());
+            }
+        } else {
+            List<ChitalishteSummaryRow> rows = chitalishteRepository.summarizeByMunicipalityCode(municipalityCode);
+            // No rows is either a municipality without chitalishta or an unknown code
+            if (rows.isEmpty() && !municipalityRepository.existsByMunicipalityCode(municipalityCode)) {
+                throw new ResourceNotFoundException("Municipality", municipalityCode);
+            }
+            for (ChitalishteSummaryRow row : rows) {
+                summary.add(row.getVillageCity(), row.getStatus(), row.getCount(), row.getLatestYear());
+            }
+        }
+
+        return summary.toDTO(municipalityCode);
+    }
+
     /**
      * Count chitalishta in municipality
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Long countChitalishtaInMunicipality(String municipalityCode) {
         log.info("Counting chitalishta in municipality: {}", municipalityCode);
 
-        Long count = chitalishteRepository.countByMunicipalityCode(municipalityCode);
+        Long count = catalogSnapshotService.current()
+                .map(snapshot -> (long) snapshot.getChitalishtaByMunicipality(municipalityCode).size())
+                .orElseGet(() -> chitalishteRepository.countByMunicipalityCode(municipalityCode));
 
         log.info("Municipality {} has {} chitalishta", municipalityCode, count);
         return count;
@@ -123,10 +329,13 @@ public class ChitalishteService {
     /**
      * Count village chitalishta in municipality
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Long countVillageChitalishta(String municipalityCode) {
         log.info("Counting village chitalishta in municipality: {}", municipalityCode);
 
-        Long count = chitalishteRepository.countVillageChitalishta(municipalityCode);
+        Long count = catalogSnapshotService.current()
+                .map(snapshot -> snapshot.countChitalishtaByVillageCity(municipalityCode, CatalogSnapshot.VILLAGE))
+                .orElseGet(() -> chitalishteRepository.countVillageChitalishta(municipalityCode));
 
         log.info("Municipality {} has {} village chitalishta", municipalityCode, count);
         return count;
@@ -135,12 +344,75 @@ public class ChitalishteService {
     /**
      * Count city chitalishta in municipality
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Long countCityChitalishta(String municipalityCode) {
         log.info("Counting city chitalishta in municipality: {}", municipalityCode);
 
-        Long count = chitalishteRepository.countCityChitalishta(municipalityCode);
+        Long count = catalogSnapshotService.current()
+                .map(snapshot -> snapshot.countChitalishtaByVillageCity(municipalityCode, CatalogSnapshot.CITY))
+                .orElseGet(() -> chitalishteRepository.countCityChitalishta(municipalityCode));
 
         log.info("Municipality {} has {} city chitalishta", municipalityCode, count);
         return count;
     }
-}
\ No newline at end of file
+
+    private String encodeCursor(ChitalishteSortField field, boolean descending, UUID id, String sortKey) {
+        String raw = field.getKey() + ":" + (descending ? "d" : "a") + ":" + id + ":" + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode cursor into [sortField, direction, id, sortKey]
+     */
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            UUID.fromString(parts[2]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Folds (village_city, status) groups into the summary DTO
+     */
+    private static class SummaryAccumulator {
+
+        private static final String UNKNOWN_STATUS = "unknown";
+
+        private long total;
+        private long village;
+        private long city;
+        private Integer latestYear;
+        private final Map<String, Long> statusCounts = new TreeMap<>();
+
+        void add(String villageCity, String status, long count, Integer year) {
+            total += count;
+            if (CatalogSnapshot.VILLAGE.equals(villageCity)) {
+                village += count;
+            } else if (CatalogSnapshot.CITY.equals(villageCity)) {
+                city += count;
+            }
+            statusCounts.merge(status != null ? status : UNKNOWN_STATUS, count, Long::sum);
+            if (year != null && (latestYear == null || year > latestYear)) {
+                latestYear = year;
+            }
+        }
+
+        MunicipalityChitalishtaSummaryDTO toDTO(String municipalityCode) {
+            return MunicipalityChitalishtaSummaryDTO.builder()
+                    .municipalityCode(municipalityCode)
+                    .total(total)
+                    .village(village)
+                    .city(city)
+                    .statusCounts(statusCounts)
+                    .latestYear(latestYear)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.ChitalishteDTO;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sort fields allowed for keyset pagination of chitalishta
+ * Each one is backed by an index on (COALESCE(column, ''), id) - see StartupDatabaseObjects
+ */
+public enum ChitalishteSortField {
+
+    NAME("name", "name", ChitalishteDTO::getName),
+    REG_N("regN", "reg_n", ChitalishteDTO::getRegN),
+    TOWN("town", "town", ChitalishteDTO::getTown);
+
+    private static final Map<String, ChitalishteSortField> BY_KEY = Arrays.stream(values())
+            .collect(Collectors.toMap(ChitalishteSortField::getKey, Function.identity()));
+
+    private final String key;
+    private final String column;
+    private final Function<ChitalishteDTO, String> accessor;
+
+    ChitalishteSortField(String key, String column, Function<ChitalishteDTO, String> accessor) {
+        this.key = key;
+        this.column = column;
+        this.accessor = accessor;
+    }
+
+    /**
+     * Key as used in the API (matches the ChitalishteDTO field name)
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Column name in the chitalishta table
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Sort key of a row, same as COALESCE(column, '') in SQL
+     */
+    public String sortKeyOf(ChitalishteDTO chitalishte) {
+        String value = accessor.apply(chitalishte);
+        return value != null ? value : "";
+    }
+
+    public static ChitalishteSortField fromKey(String key) {
+        ChitalishteSortField field = BY_KEY.get(key);
+        if (field == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + key + ", allowed: " + BY_KEY.keySet());
+        }
+        return field;
+    }
+}
@@ -0,0 +1,232 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import bg.chitalishte.event.GeoJsonLayersReloadedEvent;
+import bg.chitalishte.exception.ResourceNotFoundException;
+import bg.chitalishte.repository.MunicipalityMetricsViewRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Municipality choropleth: municipality geometry with one indicator value and its class per feature
+ * Geometry and original properties are pre-serialized once per layer variant; a request only writes
+ * them as raw values around the spliced-in value, so no JSON tree is built per request
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChoroplethService {
+
+    private static final String LAYER = "municipalities";
+    private static final String CODE_PROPERTY = "nuts4";
+    private static final int MIN_CLASSES = 2;
+    private static final int MAX_CLASSES = 9;
+
+    private final GeoJsonLayerStore layerStore;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final MunicipalityMetricsViewRepository metricsViewRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<GeoJsonLayer.Encoded, List<FeatureParts>> prepared = new ConcurrentHashMap<>();
+
+    /**
+     * A feature split into raw JSON pieces: property values and the geometry
+     */
+    private record FeatureParts(String code, Map<String, SerializableString> properties, SerializableString geometry) {
+    }
+
+    /**
+     * Values and quantile class breaks of one indicator, ready to be streamed
+     */
+    public final class Choropleth {
+        private final MunicipalityIndicator indicator;
+        private final List<FeatureParts> features;
+        private final Map<String, BigDecimal> values;
+        private final List<BigDecimal> breaks;
+
+        private Choropleth(MunicipalityIndicator indicator, List<FeatureParts> features,
+                           Map<String, BigDecimal> values, List<BigDecimal> breaks) {
+            this.indicator = indicator;
+            this.features = features;
+            this.values = values;
+            this.breaks = breaks;
+        }
+
+        /**
+         * FeatureCollection with "indicator" and "breaks" members; every feature gets "value" and "class"
+         * (0-based, null when the municipality has no value)
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            JsonGenerator generator = objectMapper.createGenerator(out);
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeStringField("indicator", indicator.getKey());
+            generator.writeArrayFieldStart("breaks");
+            for (BigDecimal value : breaks) {
+                generator.writeNumber(value);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("features");
+            for (FeatureParts feature : features) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "Feature");
+
+                generator.writeObjectFieldStart("properties");
+                for (Map.Entry<String, SerializableString> property : feature.properties().entrySet()) {
+                    generator.writeFieldName(property.getKey());
+                    generator.writeRawValue(property.getValue());
+                }
+                BigDecimal value = feature.code() != null ? values.get(feature.code()) : null;
+                if (value != null) {
+                    generator.writeNumberField("value", value);
+                    generator.writeNumberField("class", classOf(value, breaks));
+                } else {
+                    generator.writeNullField("value");
+                    generator.writeNullField("class");
+                }
+                generator.writeEndObject();
+
+                generator.writeFieldName("geometry");
+                generator.writeRawValue(feature.geometry());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.flush();
+        }
+    }
+
+    /**
+     * Drop features prepared from variants of replaced layers
+     */
+    @Order(0)
+    @EventListener
+    public void onLayersReloaded(GeoJsonLayersReloadedEvent event) {
+        if (event.layers().contains(LAYER)) {
+            prepared.keySet().retainAll(layerStore.getVariants());
+        }
+    }
+
+    /**
+     * Collect indicator values (snapshot, or one read-model query) and compute quantile breaks
+     * ?zoom= selects the simplified geometry variant as on the layer endpoints
+     */
+    public Choropleth getChoropleth(String indicatorKey, int classes, Integer zoom) {
+        MunicipalityIndicator indicator = MunicipalityIndicator.fromKey(indicatorKey);
+        if (classes < MIN_CLASSES || classes > MAX_CLASSES) {
+            throw new IllegalArgumentException("Classes must be between " + MIN_CLASSES + " and " + MAX_CLASSES);
+        }
+
+        GeoJsonLayer layer = layerStore.get(LAYER)
+                .orElseThrow(() -> new ResourceNotFoundException("Layer", LAYER));
+        List<FeatureParts> features = prepared.computeIfAbsent(layer.resolve(zoom, null), this::prepare);
+
+        Function<String, Optional<MunicipalityMetricsDTO>> metrics;
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            metrics = snapshot.get()::getMetrics;
+        } else {
+            Map<String, MunicipalityMetricsDTO> all = metricsViewRepository.findAllByMunicipalityCode();
+            metrics = code -> Optional.ofNullable(all.get(code));
+        }
+
+        Map<String, BigDecimal> values = new HashMap<>();
+        for (FeatureParts feature : features) {
+            if (feature.code() == null) {
+                continue;
+            }
+            metrics.apply(feature.code())
+                    .map(indicator::valueOf)
+                    .ifPresent(value -> values.put(feature.code(), value));
+        }
+
+        List<BigDecimal> breaks = quantileBreaks(new ArrayList<>(values.values()), classes);
+        log.info("Choropleth {}: {} of {} municipalities with a value, breaks {}",
+                indicator.getKey(), values.size(), features.size(), breaks);
+
+        return new Choropleth(indicator, features, values, breaks);
+    }
+
+    /**
+     * Class edges [min, q1, ..., max] with equal counts per class; repeated edges are merged
+     */
+    static List<BigDecimal> quantileBreaks(List<BigDecimal> values, int classes) {
+        List<BigDecimal> breaks = new ArrayList<>();
+        if (values.isEmpty()) {
+            return breaks;
+        }
+        values.sort(null);
+        int n = values.size();
+        breaks.add(values.get(0));
+        for (int i = 1; i <= classes; i++) {
+            BigDecimal edge = values.get(Math.min(n - 1, (int) Math.ceil((double) i * n / classes) - 1));
+            if (edge.compareTo(breaks.get(breaks.size() - 1)) > 0) {
+                breaks.add(edge);
+            }
+        }
+        return breaks;
+    }
+
+    /**
+     * Class index: the first class whose upper edge is not below the value
+     */
+    static int classOf(BigDecimal value, List<BigDecimal> breaks) {
+        for (int i = 1; i < breaks.size(); i++) {
+            if (value.compareTo(breaks.get(i)) <= 0) {
+                return i - 1;
+            }
+        }
+        return Math.max(0, breaks.size() - 2);
+    }
+
+    private List<FeatureParts> prepare(GeoJsonLayer.Encoded variant) {
+        try {
+            List<FeatureParts> features = new ArrayList<>();
+            for (JsonNode feature : objectMapper.readTree(variant.raw()).path("features")) {
+                Map<String, SerializableString> properties = new LinkedHashMap<>();
+                JsonNode propertyNodes = feature.path("properties");
+                propertyNodes.fields().forEachRemaining(property ->
+                        properties.put(property.getKey(), raw(property.getValue())));
+
+                JsonNode code = propertyNodes.get(CODE_PROPERTY);
+                features.add(new FeatureParts(code != null ? code.asText() : null, properties, raw(feature.path("geometry"))));
+            }
+            return features;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SerializableString raw(JsonNode node) {
+        try {
+            SerializedString json = new SerializedString(objectMapper.writeValueAsString(node));
+            // Encode once now - writes copy the cached UTF-8 bytes
+            json.asUnquotedUTF8();
+            return json;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
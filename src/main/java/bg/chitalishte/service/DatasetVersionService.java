@@ -0,0 +1,63 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.event.GeoJsonLayersReloadedEvent;
+import bg.chitalishte.event.MetricsRecalculatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Global version of the published data
+ * Bumped after every committed metrics run (an import always ends with one) and after a GeoJSON
+ * layer reload, and used for ETag / Last-Modified on read endpoints. The boot timestamp is part
+ * of the ETag so versions from a previous process are never mistaken for current ones.
+ */
+@Slf4j
+@Service
+public class DatasetVersionService {
+
+    /**
+     * @param etag         strong ETag value including quotes
+     * @param lastModified epoch millis, truncated to seconds (HTTP date precision)
+     */
+    public record DatasetVersion(long counter, String etag, long lastModified) {
+    }
+
+    private final long bootId = System.currentTimeMillis();
+    private final AtomicReference<DatasetVersion> current = new AtomicReference<>(version(1));
+
+    public DatasetVersion current() {
+        return current.get();
+    }
+
+    /**
+     * Runs after the read model and catalog snapshot are refreshed
+     */
+    @Order(2)
+    @TransactionalEventListener
+    public void onMetricsRecalculated(MetricsRecalculatedEvent event) {
+        DatasetVersion version = current.updateAndGet(previous -> version(previous.counter() + 1));
+        log.info("Dataset version bumped to {} after run {}", version.etag(), event.runId());
+    }
+
+    /**
+     * Runs after the layer-derived indexes and caches are rebuilt
+     */
+    @Order(2)
+    @EventListener
+    public void onGeoJsonLayersReloaded(GeoJsonLayersReloadedEvent event) {
+        DatasetVersion version = current.updateAndGet(previous -> version(previous.counter() + 1));
+        log.info("Dataset version bumped to {} after reloading layers {}", version.etag(), event.layers());
+    }
+
+    private DatasetVersion version(long counter) {
+        long lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+        return new DatasetVersion(counter, "\"" + Long.toString(bootId, 36) + "-" + counter + "\"", lastModified);
+    }
+}
@@ -0,0 +1,328 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams full datasets from a forward-only JDBC cursor straight to an OutputStream
+ * Rows are written one at a time (NDJSON or CSV), so memory use does not depend on the dataset size
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Exportable datasets - key is used in the URL
+     * Columns are listed explicitly and match the public API: no surrogate ids or foreign keys, and no
+     * personal or free-text fields of the registry (chairman, secretary, phone_registry, activity notes)
+     */
+    public enum Dataset {
+        CHITALISHTA("chitalishta", """
+                SELECT m.municipality_code, c.reg_n, c.slug, c.name, c.town, c.address, c.phone, c.uic,
+                       c.settlement_norm, c.village_city, c.latest_status AS status, c.latest_year
+                FROM chitalishta c
+                JOIN municipalities m ON m.id = c.municipality_id
+                ORDER BY c.reg_n
+                """),
+        CHITALISHTE_YEAR_DATA("chitalishte-year-data", """
+                SELECT reg_n, year, status,
+                       total_expenditure, accumulated_profit, profit, operating_income, total_income,
+                       accumulated_loss, loss, external_services_spending, intangible_assets, fixed_assets,
+                       material_reserves, receivables, investment, cash, current_assets, total_assets, equity,
+                       liabilities, short_term_liabilities, long_term_liabilities, average_annual_staff,
+                       net_income, staff_expenses, trade_price, income_profitability, equity_profitability,
+                       asset_profitability, financial_autonomy, financial_debt, short_term_liquidity,
+                       fast_liquidity, immediate_liquidity, absolute_liquidity, turnover_time, turnover_count,
+                       debt_to_tangible_assets, assets_per_staff, liabilities_per_staff, income_per_staff,
+                       profit_per_staff, staff_count,
+                       total_members, membership_applications, new_members, rejected_applications,
+                       art_clubs, language_schools, local_history_clubs, museum_collections, folklore_groups,
+                       theater_groups, dance_groups, classical_dance_groups, vocal_groups, other_clubs,
+                       event_participations, independent_projects, collaborative_projects,
+                       subsidized_staff_count, total_staff_registry, staff_higher_edu, specialized_positions,
+                       administrative_positions, support_staff, training_participation, imposed_sanctions,
+                       library_users, library_users_online, library_units, newly_acquired, newly_acquired_alt,
+                       borrowed_documents, home_visits, reading_room_visits, internet_access,
+                       computerized_workstations, computerized_workstations_alt, regional_projects,
+                       national_projects, international_projects, library_staff_total,
+                       library_staff_higher_edu, library_staff_secondary_edu, library_staff_training
+                FROM chitalishte_year_data
+                ORDER BY reg_n, year
+                """),
+        MUNICIPALITIES("municipalities", """
+                SELECT municipality_code, municipality, municipality_norm, district, district_code,
+                       nuts1, nuts2, nuts3, mrrb_category, municipality_population, total_chitalishta
+                FROM municipalities
+                ORDER BY municipality_code
+                """),
+        MUNICIPALITY_YEAR_DATA("municipality-year-data", """
+                SELECT municipality_code, year,
+                       total_staff_count, staff_higher_education_count, staff_secondary_education_count,
+                       secretaries_count, secretaries_higher_education_count,
+                       total_revenue_thousands, revenue_from_subsidies_thousands, revenue_from_rent_thousands,
+                       total_expenses_thousands, expenses_salaries_thousands, expenses_social_security_thousands,
+                       average_insurance_income, unique_employment_contracts, subsidized_positions,
+                       additional_positions, unemployment_rate, unemployment_rate_15_29, gross_wage_monthly,
+                       gross_value_added_per_person, companies_number, companies_per_capita, employment_rate,
+                       urban_population_percent, students_number, students_per_1000, kids_kindergartens,
+                       hospitals, poor_health
+                FROM municipality_year_data
+                ORDER BY municipality_code, year
+                """),
+        METRICS("metrics", """
+                SELECT municipality_code, municipality_name, total_chitalishta, village_chitalishta,
+                       city_chitalishta, state_subsidy_amount, state_subsidy_per_capita, additional_positions,
+                       revenue_from_subsidies_percent, revenue_from_rent_percent, revenue_from_other_percent,
+                       expenses_for_salaries_percent, expenses_other_percent, total_staff,
+                       unique_employment_contracts, staff_higher_education_percent,
+                       staff_secondary_education_percent, secretaries_count, secretaries_higher_education_percent,
+                       average_insurance_income, chitalishta_no_training_percent, chitalishta_per_10k_residents,
+                       chitalishta_per_1k_children_under_15, chitalishta_per_1k_students,
+                       chitalishta_per_1k_kindergarten, chitalishta_per_1k_elderly
+                FROM municipality_metrics_view
+                ORDER BY municipality_code
+                """);
+
+        private static final Map<String, Dataset> BY_KEY = Arrays.stream(values())
+                .collect(Collectors.toMap(Dataset::getKey, Function.identity()));
+
+        private final String key;
+        private final String sql;
+
+        Dataset(String key, String sql) {
+            this.key = key;
+            this.sql = sql;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Dataset fromKey(String key) {
+            Dataset dataset = BY_KEY.get(key);
+            if (dataset == null) {
+                throw new IllegalArgumentException("Unknown dataset: " + key + ", allowed: " + BY_KEY.keySet());
+            }
+            return dataset;
+        }
+    }
+
+    /**
+     * Output formats
+     */
+    public enum Format {
+        NDJSON("ndjson", "application/x-ndjson"),
+        CSV("csv", "text/csv");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format fromKey(String key) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(key)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown format: " + key + ", allowed: ndjson, csv");
+        }
+    }
+
+    /**
+     * Stream dataset to the output stream, optionally gzip-compressed
+     * Runs in a read-only transaction so the PostgreSQL driver uses a server-side cursor (fetchSize)
+     */
+    public void export(Dataset dataset, Format format, boolean gzip, OutputStream out) {
+        long start = System.currentTimeMillis();
+
+        JdbcTemplate cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorTemplate.setFetchSize(FETCH_SIZE);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 65536) : out;
+            RowWriter writer = format == Format.NDJSON ? new NdjsonRowWriter(target) : new CsvRowWriter(target);
+
+            // Header from the metadata before the first row, so an empty dataset still gets its CSV header
+            ResultSetExtractor<Long> extractor = rs -> {
+                try {
+                    writer.begin(rs.getMetaData());
+                    long count = 0;
+                    while (rs.next()) {
+                        writer.write(rs);
+                        count++;
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            long rows = transactionTemplate.execute(status -> cursorTemplate.query(dataset.sql, extractor));
+
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            out.flush();
+
+            log.info("Exported {} rows of {} as {} (gzip: {}) in {} ms",
+                    rows, dataset.getKey(), format.getExtension(), gzip, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error exporting " + dataset.getKey(), e);
+        }
+    }
+
+    private interface RowWriter {
+        void begin(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * One JSON object per line, keys are column names
+     */
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private String[] columns;
+        private boolean written;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.createGenerator(out);
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        public void begin(ResultSetMetaData metaData) throws SQLException {
+            columns = columnLabels(metaData);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                generator.writeObject(rs.getObject(i + 1));
+            }
+            generator.writeEndObject();
+            written = true;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // Terminate the last line; an empty dataset is an empty body
+            if (written) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row
+     */
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private int columnCount;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 65536);
+        }
+
+        @Override
+        public void begin(ResultSetMetaData metaData) throws SQLException, IOException {
+            String[] columns = columnLabels(metaData);
+            columnCount = columns.length;
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(columns[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columnCount; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static String[] columnLabels(ResultSetMetaData metaData) throws SQLException {
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,123 @@
+package bg.chitalishte.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the geocoding data directory and reloads changed *.geojson layers without a redeploy
+ * Layers are rebuilt on the watcher thread and swapped in by GeoJsonLayerStore.reload
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GeoJsonDirectoryWatcher {
+
+    /**
+     * Quiet period before reloading - copies and editors write a file in several steps
+     */
+    private static final long DEBOUNCE_MILLIS = 1000;
+
+    private final GeoJsonLayerStore layerStore;
+
+    @Value("${geocoding.data.watch:true}")
+    private boolean enabled;
+
+    private volatile WatchService watchService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Optional<Path> directory = layerStore.getDataDirectory();
+        if (!enabled || directory.isEmpty()) {
+            return;
+        }
+
+        try {
+            WatchService service = directory.get().getFileSystem().newWatchService();
+            directory.get().register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchService = service;
+        } catch (IOException e) {
+            log.error("Cannot watch geocoding data directory {}, layers will not be reloaded", directory.get(), e);
+            return;
+        }
+
+        Thread thread = new Thread(this::watch, "geojson-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching geocoding data directory {} for layer changes", directory.get());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        WatchService service = watchService;
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Set<String> changed = new TreeSet<>();
+                boolean overflow = collect(watchService.take(), changed);
+
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(next, changed);
+                }
+
+                try {
+                    if (overflow) {
+                        layerStore.reloadAll();
+                    } else if (!changed.isEmpty()) {
+                        layerStore.reload(changed);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Error reloading GeoJSON layers {}", changed, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Add the layer names of a key's events, true when events were lost and everything must be reloaded
+     */
+    private boolean collect(WatchKey key, Set<String> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            String fileName = event.context().toString();
+            if (fileName.endsWith(GeoJsonLayerStore.EXTENSION)) {
+                changed.add(GeoJsonLayerStore.layerName(fileName));
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+}
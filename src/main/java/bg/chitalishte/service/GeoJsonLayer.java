@@ -0,0 +1,455 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable GeoJSON layer held as ready-to-send bytes
+ * The UTF-8 body and its gzip encoding are built once, so a request only copies bytes
+ * Single features are indexed by their code (ekatte, nuts4 or nuts3) and pre-serialized as well
+ * Simplified variants are precomputed for overview zoom levels (see GeometrySimplifier)
+ * Every variant is also held as TopoJSON (see TopoJsonEncoder)
+ * A layer can be built in two steps: base() holds the full GeoJSON only and withVariants() adds the rest,
+ * so the expensive part can run off the startup thread
+ * Features keep their serialized fragments, bounding boxes and nuts3 / nuts4 codes for filtered responses
+ */
+public final class GeoJsonLayer {
+
+    /**
+     * Feature code properties, most specific first - a feature is indexed by the first one it has
+     */
+    private static final List<String> FEATURE_KEYS = List.of("ekatte", "nuts4", "nuts3");
+
+    /**
+     * Web map zoom levels with a simplified variant; above the last one the full geometry is served
+     */
+    private static final int[] SIMPLIFIED_ZOOMS = {5, 7, 9, 11};
+
+    private static final byte[] COLLECTION_START =
+            "{\"type\":\"FeatureCollection\",\"features\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COLLECTION_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * UTF-8 body and its gzip encoding (callers must not modify the arrays)
+     */
+    public record Encoded(byte[] raw, byte[] gzip) {
+
+        static Encoded of(byte[] raw) {
+            return new Encoded(raw, GeoJsonLayer.gzip(raw));
+        }
+    }
+
+    /**
+     * Output format of a layer variant
+     */
+    public enum Format {
+        GEOJSON, TOPOJSON;
+
+        public static Format fromParam(String format) {
+            for (Format value : values()) {
+                if (value.name().equalsIgnoreCase(format)) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported format: " + format + ", allowed: geojson, topojson");
+        }
+    }
+
+    /**
+     * Feature filter: bounding box [minLon, minLat, maxLon, maxLat] and / or nuts3 / nuts4 code, all optional
+     */
+    public record Filter(double[] bbox, String nuts3, String nuts4) {
+
+        /**
+         * Parse request parameters (bbox as "minLon,minLat,maxLon,maxLat"), empty when none is given
+         */
+        public static Optional<Filter> of(String bbox, String nuts3, String nuts4) {
+            double[] bounds = parseBbox(bbox);
+            String province = normalizeCode(nuts3);
+            String municipality = normalizeCode(nuts4);
+            if (bounds == null && province == null && municipality == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Filter(bounds, province, municipality));
+        }
+
+        private static double[] parseBbox(String bbox) {
+            if (bbox == null || bbox.isBlank()) {
+                return null;
+            }
+            String[] parts = bbox.split(",");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat: " + bbox);
+            }
+            double[] bounds = new double[4];
+            try {
+                for (int i = 0; i < 4; i++) {
+                    bounds[i] = Double.parseDouble(parts[i].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat: " + bbox);
+            }
+            if (!(bounds[0] <= bounds[2] && bounds[1] <= bounds[3])) {
+                throw new IllegalArgumentException("bbox minimum must not exceed its maximum: " + bbox);
+            }
+            return bounds;
+        }
+
+        private static String normalizeCode(String code) {
+            return code == null || code.isBlank() ? null : code.trim().toUpperCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * One resolution: whole-layer encodings plus the GeoJSON fragment of every feature (layer order)
+     */
+    private record Level(Encoded geoJson, Encoded topoJson, byte[][] features) {
+
+        Encoded get(Format format) {
+            return format == Format.TOPOJSON ? topoJson : geoJson;
+        }
+    }
+
+    private final String name;
+    private final Level full;
+    private final NavigableMap<Integer, Level> byZoom;
+    private final NavigableMap<Double, Level> byTolerance;
+    private final int featureCount;
+    private final Map<String, byte[]> features;
+    private final double[] featureBounds;
+    private final String[] nuts3Codes;
+    private final String[] nuts4Codes;
+    private final Map<String, int[]> byNuts3;
+    private final Map<String, int[]> byNuts4;
+
+    private GeoJsonLayer(String name, Level full, NavigableMap<Integer, Level> byZoom,
+                         NavigableMap<Double, Level> byTolerance, int featureCount, Map<String, byte[]> features,
+                         double[] featureBounds, String[] nuts3Codes, String[] nuts4Codes) {
+        this.name = name;
+        this.full = full;
+        this.byZoom = byZoom;
+        this.byTolerance = byTolerance;
+        this.featureCount = featureCount;
+        this.features = features;
+        this.featureBounds = featureBounds;
+        this.nuts3Codes = nuts3Codes;
+        this.nuts4Codes = nuts4Codes;
+        this.byNuts3 = indexCodes(nuts3Codes);
+        this.byNuts4 = indexCodes(nuts4Codes);
+    }
+
+    /**
+     * Build a complete layer from the UTF-8 bytes of a GeoJSON file (gzip at best compression)
+     */
+    public static GeoJsonLayer of(String name, byte[] raw, ObjectMapper objectMapper) throws IOException {
+        return base(name, raw, objectMapper).withVariants(objectMapper);
+    }
+
+    /**
+     * Build the full resolution GeoJSON of a layer with its feature index, without simplified variants
+     * or TopoJSON - zoom and tolerance requests get the full geometry until withVariants() is applied
+     */
+    public static GeoJsonLayer base(String name, byte[] raw, ObjectMapper objectMapper) throws IOException {
+        JsonNode root = objectMapper.readTree(raw);
+        JsonNode featureNodes = root.path("features");
+        int count = featureNodes.size();
+
+        byte[][] fullFeatures = serializeFeatures(featureNodes, objectMapper);
+        Map<String, byte[]> features = new HashMap<>();
+        double[] featureBounds = new double[count * 4];
+        String[] nuts3Codes = new String[count];
+        String[] nuts4Codes = new String[count];
+        for (int i = 0; i < count; i++) {
+            JsonNode feature = featureNodes.get(i);
+            JsonNode properties = feature.path("properties");
+            String code = featureCode(properties);
+            if (code != null) {
+                features.put(code, fullFeatures[i]);
+            }
+            nuts3Codes[i] = codeOf(properties, "nuts3");
+            nuts4Codes[i] = codeOf(properties, "nuts4");
+            computeBounds(feature.path("geometry"), featureBounds, i * 4);
+        }
+
+        return new GeoJsonLayer(name, new Level(Encoded.of(raw), null, fullFeatures),
+                Collections.emptyNavigableMap(), Collections.emptyNavigableMap(),
+                count, Collections.unmodifiableMap(features), featureBounds, nuts3Codes, nuts4Codes);
+    }
+
+    /**
+     * This layer with the simplified variants and the TopoJSON of every variant
+     * The full GeoJSON, feature index and bounds are shared with this instance
+     */
+    public GeoJsonLayer withVariants(ObjectMapper objectMapper) throws IOException {
+        if (isComplete()) {
+            return this;
+        }
+        JsonNode root = objectMapper.readTree(full.geoJson().raw());
+
+        NavigableMap<Integer, Level> byZoom = new TreeMap<>();
+        NavigableMap<Double, Level> byTolerance = new TreeMap<>();
+        if (featureCount > 0) {
+            for (int zoom : SIMPLIFIED_ZOOMS) {
+                double tolerance = toleranceForZoom(zoom);
+                // One decimal below the tolerance keeps rounding error under a tenth of a pixel
+                int decimals = (int) Math.ceil(-Math.log10(tolerance)) + 1;
+                JsonNode simplifiedRoot = GeometrySimplifier.simplify(root, tolerance, decimals, objectMapper);
+                Level simplified = new Level(Encoded.of(objectMapper.writeValueAsBytes(simplifiedRoot)),
+                        Encoded.of(objectMapper.writeValueAsBytes(TopoJsonEncoder.encode(simplifiedRoot, name, objectMapper))),
+                        serializeFeatures(simplifiedRoot.path("features"), objectMapper));
+                byZoom.put(zoom, simplified);
+                byTolerance.put(tolerance, simplified);
+            }
+        }
+
+        Level complete = new Level(full.geoJson(),
+                Encoded.of(objectMapper.writeValueAsBytes(TopoJsonEncoder.encode(root, name, objectMapper))),
+                full.features());
+
+        return new GeoJsonLayer(name, complete,
+                Collections.unmodifiableNavigableMap(byZoom), Collections.unmodifiableNavigableMap(byTolerance),
+                featureCount, features, featureBounds, nuts3Codes, nuts4Codes);
+    }
+
+    /**
+     * True once the simplified variants and TopoJSON are built
+     */
+    public boolean isComplete() {
+        return full.topoJson() != null;
+    }
+
+    /**
+     * Simplification tolerance in degrees for a zoom level: about one pixel of a 256 px tile
+     */
+    public static double toleranceForZoom(int zoom) {
+        return 360.0 / (256L << zoom);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Full resolution GeoJSON
+     */
+    public Encoded getFull() {
+        return full.geoJson();
+    }
+
+    /**
+     * GeoJSON variant for a zoom level or a tolerance (degrees), full resolution when neither is given
+     */
+    public Encoded resolve(Integer zoom, Double tolerance) {
+        return resolve(zoom, tolerance, Format.GEOJSON);
+    }
+
+    /**
+     * Variant for a zoom level or a tolerance (degrees) in the given format, full resolution when neither is given
+     * The coarsest variant that is still within the requested detail is chosen
+     */
+    public Encoded resolve(Integer zoom, Double tolerance, Format format) {
+        if (format == Format.TOPOJSON && !isComplete()) {
+            throw new ServiceUnavailableException("TopoJSON of layer " + name + " is still being built");
+        }
+        return level(zoom, tolerance).get(format);
+    }
+
+    private Level level(Integer zoom, Double tolerance) {
+        if (zoom != null) {
+            if (zoom < 0) {
+                throw new IllegalArgumentException("Zoom must not be negative: " + zoom);
+            }
+            Map.Entry<Integer, Level> level = byZoom.ceilingEntry(zoom);
+            return level != null ? level.getValue() : full;
+        }
+        if (tolerance != null) {
+            if (!(tolerance >= 0)) {
+                throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+            }
+            Map.Entry<Double, Level> level = byTolerance.floorEntry(tolerance);
+            return level != null ? level.getValue() : full;
+        }
+        return full;
+    }
+
+    /**
+     * Encoded variants in all formats, full resolution GeoJSON first
+     */
+    public List<Encoded> getVariants() {
+        List<Encoded> variants = new ArrayList<>();
+        variants.add(full.geoJson());
+        if (!isComplete()) {
+            return variants;
+        }
+        variants.add(full.topoJson());
+        for (Level level : byZoom.values()) {
+            variants.add(level.geoJson());
+            variants.add(level.topoJson());
+        }
+        return variants;
+    }
+
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    /**
+     * Serialized GeoJSON Feature by its ekatte / nuts4 / nuts3 code (case-insensitive)
+     */
+    public Optional<byte[]> getFeature(String code) {
+        return Optional.ofNullable(features.get(code.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * GeoJSON FeatureCollection of the features matching a filter, at the resolution chosen as in resolve()
+     * Pre-serialized feature fragments are concatenated; candidates come from the nuts4 / nuts3 index when given,
+     * the bounding box is tested against precomputed per-feature bounds
+     */
+    public byte[] filter(Filter filter, Integer zoom, Double tolerance) {
+        byte[][] fragments = level(zoom, tolerance).features();
+
+        int[] candidates = null;
+        if (filter.nuts4() != null) {
+            candidates = byNuts4.getOrDefault(filter.nuts4(), new int[0]);
+        } else if (filter.nuts3() != null) {
+            candidates = byNuts3.getOrDefault(filter.nuts3(), new int[0]);
+        }
+        int size = candidates != null ? candidates.length : featureCount;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(COLLECTION_START);
+        boolean first = true;
+        for (int k = 0; k < size; k++) {
+            int i = candidates != null ? candidates[k] : k;
+            if (!matches(filter, i)) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(fragments[i]);
+            first = false;
+        }
+        out.writeBytes(COLLECTION_END);
+        return out.toByteArray();
+    }
+
+    private boolean matches(Filter filter, int i) {
+        if (filter.nuts3() != null && !filter.nuts3().equals(nuts3Codes[i])) {
+            return false;
+        }
+        if (filter.nuts4() != null && !filter.nuts4().equals(nuts4Codes[i])) {
+            return false;
+        }
+        double[] bbox = filter.bbox();
+        if (bbox == null) {
+            return true;
+        }
+        int b = i * 4;
+        // Features without coordinates have NaN bounds and never intersect
+        return featureBounds[b] <= bbox[2] && featureBounds[b + 2] >= bbox[0]
+                && featureBounds[b + 1] <= bbox[3] && featureBounds[b + 3] >= bbox[1];
+    }
+
+    private static byte[][] serializeFeatures(JsonNode featureNodes, ObjectMapper objectMapper) throws IOException {
+        byte[][] fragments = new byte[featureNodes.size()][];
+        for (int i = 0; i < fragments.length; i++) {
+            fragments[i] = objectMapper.writeValueAsBytes(featureNodes.get(i));
+        }
+        return fragments;
+    }
+
+    private static String codeOf(JsonNode properties, String key) {
+        JsonNode value = properties.get(key);
+        return value != null && !value.isNull() ? value.asText().toUpperCase(Locale.ROOT) : null;
+    }
+
+    private static Map<String, int[]> indexCodes(String[] codes) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] != null) {
+                positions.computeIfAbsent(codes[i], code -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, int[]> index = new HashMap<>();
+        positions.forEach((code, list) -> index.put(code, list.stream().mapToInt(Integer::intValue).toArray()));
+        return index;
+    }
+
+    /**
+     * Bounding box [minX, minY, maxX, maxY] of any geometry into bounds[offset..offset + 3], NaN when it has no coordinates
+     */
+    private static void computeBounds(JsonNode geometry, double[] bounds, int offset) {
+        bounds[offset] = Double.POSITIVE_INFINITY;
+        bounds[offset + 1] = Double.POSITIVE_INFINITY;
+        bounds[offset + 2] = Double.NEGATIVE_INFINITY;
+        bounds[offset + 3] = Double.NEGATIVE_INFINITY;
+        extendBounds(geometry.path("coordinates"), bounds, offset);
+        for (JsonNode part : geometry.path("geometries")) {
+            extendBounds(part.path("coordinates"), bounds, offset);
+        }
+        if (bounds[offset] > bounds[offset + 2]) {
+            Arrays.fill(bounds, offset, offset + 4, Double.NaN);
+        }
+    }
+
+    private static void extendBounds(JsonNode coordinates, double[] bounds, int offset) {
+        if (!coordinates.isArray() || coordinates.isEmpty()) {
+            return;
+        }
+        if (coordinates.get(0).isNumber()) {
+            double x = coordinates.get(0).asDouble();
+            double y = coordinates.path(1).asDouble();
+            bounds[offset] = Math.min(bounds[offset], x);
+            bounds[offset + 1] = Math.min(bounds[offset + 1], y);
+            bounds[offset + 2] = Math.max(bounds[offset + 2], x);
+            bounds[offset + 3] = Math.max(bounds[offset + 3], y);
+            return;
+        }
+        for (JsonNode child : coordinates) {
+            extendBounds(child, bounds, offset);
+        }
+    }
+
+    private static String featureCode(JsonNode properties) {
+        for (String key : FEATURE_KEYS) {
+            JsonNode value = properties.get(key);
+            if (value != null && !value.isNull()) {
+                return value.asText().toUpperCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
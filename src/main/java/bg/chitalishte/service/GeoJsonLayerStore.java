@@ -0,0 +1,323 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.event.GeoJsonLayersReloadedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * GeoJSON layers of the geocoding data, loaded and compressed once at startup
+ * Startup only builds the full resolution GeoJSON; simplified variants and TopoJSON are built on a
+ * background thread once the application is ready and swapped in like a reload
+ * Layers are keyed by file name without extension (e.g. "municipalities")
+ * Files of the data directory (geocoding.data.directory) take precedence,
+ * layers missing there are loaded from the classpath (geocoding.data.path)
+ * Reloads (see GeoJsonDirectoryWatcher) build the new layers first and swap the whole map in one write,
+ * so a request sees either the previous or the new version of a layer
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GeoJsonLayerStore {
+
+    static final String EXTENSION = ".geojson";
+
+    @Value("${geocoding.data.path:geocoding-data}")
+    private String dataPath;
+
+    @Value("${geocoding.data.directory:}")
+    private String dataDirectory;
+
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Map<String, GeoJsonLayer> layers = Map.of();
+    private volatile LoadReport lastLoad;
+
+    /**
+     * How one layer was loaded: source ("file:..." or "classpath:..."), file size and build time
+     */
+    public record LayerLoad(String source, long bytes, long millis) {
+    }
+
+    /**
+     * Outcome of loading all layers, exposed through the actuator info endpoint
+     */
+    public record LoadReport(Instant loadedAt, long millis, long rawBytes, long gzipBytes,
+                             Map<String, LayerLoad> layers) {
+    }
+
+    private record LoadedLayer(GeoJsonLayer layer, LayerLoad load) {
+    }
+
+    @PostConstruct
+    public void init() {
+        long start = System.currentTimeMillis();
+        Map<String, GeoJsonLayer> loaded = new TreeMap<>();
+        Map<String, LayerLoad> loads = new TreeMap<>();
+
+        Path directory = getDataDirectory().orElse(null);
+        if (directory != null) {
+            loadDirectory(directory, loaded, loads);
+        }
+        loadClasspath(loaded, loads);
+
+        swap(loaded, loads, System.currentTimeMillis() - start);
+        log.info("Loaded {} GeoJSON layers ({} bytes, {} bytes gzip) in {} ms",
+                loaded.size(), lastLoad.rawBytes(), lastLoad.gzipBytes(), lastLoad.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::completeVariants, "geojson-variants");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Build simplified variants and TopoJSON of the layers loaded at startup and swap them in
+     * Publishes GeoJsonLayersReloadedEvent, so tiles and other derived data are built from the variants
+     */
+    void completeVariants() {
+        long start = System.currentTimeMillis();
+        Map<String, GeoJsonLayer> completed = new TreeMap<>();
+        for (GeoJsonLayer layer : layers.values()) {
+            if (layer.isComplete()) {
+                continue;
+            }
+            try {
+                completed.put(layer.getName(), layer.withVariants(objectMapper));
+            } catch (IOException | RuntimeException e) {
+                log.error("Error building variants of GeoJSON layer {}", layer.getName(), e);
+            }
+        }
+
+        Set<String> changed = new TreeSet<>();
+        synchronized (this) {
+            Map<String, GeoJsonLayer> current = new TreeMap<>(layers);
+            completed.forEach((name, layer) -> {
+                // A layer reloaded in the meantime is complete already
+                GeoJsonLayer previous = current.get(name);
+                if (previous != null && !previous.isComplete()) {
+                    current.put(name, layer);
+                    changed.add(name);
+                }
+            });
+            if (changed.isEmpty()) {
+                return;
+            }
+            swap(current, lastLoad.layers(), lastLoad.millis());
+        }
+        log.info("Built simplified and TopoJSON variants of GeoJSON layers {} in {} ms ({} bytes, {} bytes gzip)",
+                changed, System.currentTimeMillis() - start, lastLoad.rawBytes(), lastLoad.gzipBytes());
+        eventPublisher.publishEvent(new GeoJsonLayersReloadedEvent(Collections.unmodifiableSet(changed)));
+    }
+
+    /**
+     * Rebuild the named layers (file of the data directory, else classpath) and swap them in
+     * A layer whose file is gone from both is removed; one that fails to load keeps its current version
+     * Publishes GeoJsonLayersReloadedEvent with the layers that changed
+     */
+    public synchronized void reload(Collection<String> names) {
+        long start = System.currentTimeMillis();
+        Map<String, GeoJsonLayer> loaded = new TreeMap<>(layers);
+        Map<String, LayerLoad> loads = new TreeMap<>(lastLoad != null ? lastLoad.layers() : Map.of());
+        Set<String> changed = new TreeSet<>();
+
+        for (String name : names) {
+            try {
+                Optional<LoadedLayer> layer = loadLayer(name);
+                if (layer.isPresent()) {
+                    loaded.put(name, layer.get().layer());
+                    loads.put(name, layer.get().load());
+                    changed.add(name);
+                } else if (loaded.remove(name) != null) {
+                    loads.remove(name);
+                    changed.add(name);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Error reloading GeoJSON layer {}, keeping the current version", name, e);
+            }
+        }
+
+        if (changed.isEmpty()) {
+            return;
+        }
+        swap(loaded, loads, System.currentTimeMillis() - start);
+        log.info("Reloaded GeoJSON layers {} in {} ms", changed, lastLoad.millis());
+        eventPublisher.publishEvent(new GeoJsonLayersReloadedEvent(Collections.unmodifiableSet(changed)));
+    }
+
+    /**
+     * Reload every current layer and every file of the data directory
+     */
+    public void reloadAll() {
+        Set<String> names = new TreeSet<>(layers.keySet());
+        getDataDirectory().ifPresent(directory -> {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                files.forEach(file -> names.add(layerName(file.getFileName().toString())));
+            } catch (IOException e) {
+                log.error("Error listing geocoding data directory {}", directory, e);
+            }
+        });
+        reload(names);
+    }
+
+    private void swap(Map<String, GeoJsonLayer> loaded, Map<String, LayerLoad> loads, long millis) {
+        long rawBytes = 0;
+        long gzipBytes = 0;
+        for (GeoJsonLayer layer : loaded.values()) {
+            for (GeoJsonLayer.Encoded variant : layer.getVariants()) {
+                rawBytes += variant.raw().length;
+                gzipBytes += variant.gzip().length;
+            }
+        }
+        layers = Collections.unmodifiableMap(loaded);
+        lastLoad = new LoadReport(Instant.now(), millis, rawBytes, gzipBytes, Collections.unmodifiableMap(loads));
+    }
+
+    public Optional<GeoJsonLayer> get(String name) {
+        return Optional.ofNullable(layers.get(name));
+    }
+
+    public Map<String, GeoJsonLayer> getAll() {
+        return layers;
+    }
+
+    /**
+     * Encoded variants of the current layers; caches keyed by variant drop the others after a reload
+     */
+    public Set<GeoJsonLayer.Encoded> getVariants() {
+        Set<GeoJsonLayer.Encoded> variants = new HashSet<>();
+        for (GeoJsonLayer layer : layers.values()) {
+            variants.addAll(layer.getVariants());
+        }
+        return variants;
+    }
+
+    public Optional<LoadReport> getLastLoad() {
+        return Optional.ofNullable(lastLoad);
+    }
+
+    /**
+     * Configured data directory, when it is set and exists
+     */
+    public Optional<Path> getDataDirectory() {
+        if (dataDirectory == null || dataDirectory.isBlank()) {
+            return Optional.empty();
+        }
+        Path directory = Path.of(dataDirectory);
+        if (!Files.isDirectory(directory)) {
+            log.warn("Geocoding data directory {} does not exist, using classpath data", directory);
+            return Optional.empty();
+        }
+        return Optional.of(directory);
+    }
+
+    private void loadDirectory(Path directory, Map<String, GeoJsonLayer> loaded, Map<String, LayerLoad> loads) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = layerName(file.getFileName().toString());
+                try {
+                    LoadedLayer layer = loadFile(name, file, false);
+                    loaded.put(name, layer.layer());
+                    loads.put(name, layer.load());
+                } catch (IOException | RuntimeException e) {
+                    // Keep going - the classpath copy of the layer is used instead
+                    log.error("Error loading GeoJSON layer {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error listing geocoding data directory {}", directory, e);
+        }
+    }
+
+    private void loadClasspath(Map<String, GeoJsonLayer> loaded, Map<String, LayerLoad> loads) {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver()
+                    .getResources("classpath*:" + dataPath + "/*" + EXTENSION);
+            for (Resource resource : resources) {
+                String fileName = resource.getFilename();
+                if (fileName == null || loaded.containsKey(layerName(fileName))) {
+                    continue;
+                }
+                LoadedLayer layer = loadResource(layerName(fileName), resource, false);
+                loaded.put(layer.layer().getName(), layer.layer());
+                loads.put(layer.layer().getName(), layer.load());
+            }
+        } catch (IOException e) {
+            log.error("Error loading GeoJSON layers from {}", dataPath, e);
+        }
+    }
+
+    private Optional<LoadedLayer> loadLayer(String name) throws IOException {
+        Optional<Path> directory = getDataDirectory();
+        if (directory.isPresent()) {
+            Path file = directory.get().resolve(name + EXTENSION);
+            if (Files.isRegularFile(file)) {
+                return Optional.of(loadFile(name, file, true));
+            }
+        }
+        Resource resource = new ClassPathResource(dataPath + "/" + name + EXTENSION);
+        if (resource.exists()) {
+            return Optional.of(loadResource(name, resource, true));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Plain read into a byte array - every served variant is built in memory from the parsed file,
+     * so neither a mapping nor zero-copy serving of the file would save anything
+     */
+    private LoadedLayer loadFile(String name, Path file, boolean complete) throws IOException {
+        long start = System.currentTimeMillis();
+        byte[] raw = Files.readAllBytes(file);
+        GeoJsonLayer layer = build(name, raw, complete);
+        return new LoadedLayer(layer, new LayerLoad("file:" + file, raw.length, System.currentTimeMillis() - start));
+    }
+
+    private LoadedLayer loadResource(String name, Resource resource, boolean complete) throws IOException {
+        long start = System.currentTimeMillis();
+        try (InputStream in = resource.getInputStream()) {
+            byte[] raw = in.readAllBytes();
+            GeoJsonLayer layer = build(name, raw, complete);
+            return new LoadedLayer(layer, new LayerLoad("classpath:" + dataPath + "/" + name + EXTENSION,
+                    raw.length, System.currentTimeMillis() - start));
+        }
+    }
+
+    /**
+     * Complete layer for reloads (already off the request path), base layer at startup
+     */
+    private GeoJsonLayer build(String name, byte[] raw, boolean complete) throws IOException {
+        return complete ? GeoJsonLayer.of(name, raw, objectMapper) : GeoJsonLayer.base(name, raw, objectMapper);
+    }
+
+    static String layerName(String fileName) {
+        return fileName.substring(0, fileName.length() - EXTENSION.length());
+    }
+}
@@ -1,7 +1,5 @@
 package bg.chitalishte.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,6 +16,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,11 +26,11 @@ public class GeocodingService {
     @Value("${geocoding.data.path:geocoding-data}")
     private String dataPath;
 
-    private final ObjectMapper objectMapper;
+    private final GeoJsonLayerStore layerStore;
     private List<Map<String, String>> municipalitiesData = new ArrayList<>();
 
-    public GeocodingService(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    public GeocodingService(GeoJsonLayerStore layerStore) {
+        this.layerStore = layerStore;
     }
 
     @PostConstruct
@@ -41,28 +40,14 @@ public class GeocodingService {
     }
 
     /**
-     * Get GeoJSON data by type
-     * Cached to improve performance
+     * Get GeoJSON layer by type (pre-encoded bytes, see GeoJsonLayerStore)
      */
-    @Cacheable(value = "geojson", key = "#type")
-    public String getGeoJsonData(String type) {
-        try {
-            String resourcePath = String.format("%s/%s.geojson", dataPath, type);
-            Resource resource = new ClassPathResource(resourcePath);
-
-            if (!resource.exists()) {
-                log.error("GeoJSON file not found: {}", resourcePath);
-                return null;
-            }
-
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
-                return reader.lines().collect(Collectors.joining("\n"));
-            }
-        } catch (IOException e) {
-            log.error("Error reading GeoJSON file: {}", type, e);
-            return null;
+    public Optional<GeoJsonLayer> getGeoJsonLayer(String type) {
+        Optional<GeoJsonLayer> layer = layerStore.get(type);
+        if (layer.isEmpty()) {
+            log.error("GeoJSON layer not found: {}", type);
         }
+        return layer;
     }
 
     /**
@@ -144,57 +129,15 @@ public class GeocodingService {
     /**
      * Get municipality feature by NUTS4 code
      */
-    public String getMunicipalityByCode(String nuts4) {
-        try {
-            String allMunicipalities = getGeoJsonData("municipalities");
-            if (allMunicipalities == null) return null;
-
-            JsonNode root = objectMapper.readTree(allMunicipalities);
-            JsonNode features = root.get("features");
-
-            if (features != null && features.isArray()) {
-                for (JsonNode feature : features) {
-                    JsonNode properties = feature.get("properties");
-                    if (properties != null && properties.has("nuts4")) {
-                        String featureNuts4 = properties.get("nuts4").asText();
-                        if (featureNuts4.equalsIgnoreCase(nuts4)) {
-                            return objectMapper.writeValueAsString(feature);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error getting municipality by code: {}", nuts4, e);
-        }
-        return null;
+    public Optional<byte[]> getMunicipalityByCode(String nuts4) {
+        return layerStore.get("municipalities").flatMap(layer -> layer.getFeature(nuts4));
     }
 
     /**
      * Get province feature by NUTS3 code
      */
-    public String getProvinceByCode(String nuts3) {
-        try {
-            String allProvinces = getGeoJsonData("provinces");
-            if (allProvinces == null) return null;
-
-            JsonNode root = objectMapper.readTree(allProvinces);
-            JsonNode features = root.get("features");
-
-            if (features != null && features.isArray()) {
-                for (JsonNode feature : features) {
-                    JsonNode properties = feature.get("properties");
-                    if (properties != null && properties.has("nuts3")) {
-                        String featureNuts3 = properties.get("nuts3").asText();
-                        if (featureNuts3.equalsIgnoreCase(nuts3)) {
-                            return objectMapper.writeValueAsString(feature);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error getting province by code: {}", nuts3, e);
-        }
-        return null;
+    public Optional<byte[]> getProvinceByCode(String nuts3) {
+        return layerStore.get("provinces").flatMap(layer -> layer.getFeature(nuts3));
     }
 
     /**
@@ -256,17 +199,6 @@ public class GeocodingService {
     }
 
     private int countFeatures(String type) {
-        try {
-            String geoJson = getGeoJsonData(type);
-            if (geoJson == null) return 0;
-
-            JsonNode root = objectMapper.readTree(geoJson);
-            JsonNode features = root.get("features");
-
-            return features != null && features.isArray() ? features.size() : 0;
-        } catch (Exception e) {
-            log.error("Error counting features for type: {}", type, e);
-            return 0;
-        }
+        return layerStore.get(type).map(GeoJsonLayer::getFeatureCount).orElse(0);
     }
 }
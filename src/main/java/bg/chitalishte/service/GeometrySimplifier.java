@@ -0,0 +1,257 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Topology-preserving Douglas-Peucker simplification of a GeoJSON FeatureCollection
+ * Rings are cut at junctions (vertices where neighbouring polygons stop sharing a boundary) and every
+ * piece between two junctions is simplified on its own; a boundary shared by two polygons is therefore
+ * simplified identically on both sides and no gaps or overlaps appear between them
+ * A ring that collapses below a triangle (when simplified or rounded) is dropped rather than patched up
+ * on one side only; a polygon without its exterior ring is dropped and a feature without polygons gets a
+ * null geometry. Only a ring with no junction keeps a minimal triangle, picked independently of its
+ * rotation so an island and the hole around it stay identical
+ * Coordinates are rounded to a precision matching the tolerance
+ */
+public final class GeometrySimplifier {
+
+    private GeometrySimplifier() {
+    }
+
+    /**
+     * Simplified copy of a FeatureCollection (tolerance in degrees); non-polygon features are copied as is
+     */
+    public static ObjectNode simplify(JsonNode collection, double tolerance, int decimals, ObjectMapper objectMapper) {
+        JsonNode features = collection.path("features");
+
+        // Rings of every polygon feature, without the closing point: feature -> polygons -> rings
+        List<List<List<double[]>>> geometries = new ArrayList<>();
+        for (JsonNode feature : features) {
+            geometries.add(PolygonRings.polygons(feature.path("geometry")));
+        }
+
+        Set<PolygonRings.Point> junctions = PolygonRings.findJunctions(geometries);
+        double scale = Math.pow(10, decimals);
+
+        ObjectNode result = collection.deepCopy();
+        ArrayNode resultFeatures = result.putArray("features");
+        int i = 0;
+        for (JsonNode feature : features) {
+            List<List<double[]>> polygons = geometries.get(i++);
+            if (polygons == null) {
+                resultFeatures.add(feature);
+                continue;
+            }
+
+            ArrayNode coordinates = objectMapper.createArrayNode();
+            for (List<double[]> polygon : polygons) {
+                ArrayNode rings = objectMapper.createArrayNode();
+                for (double[] ring : polygon) {
+                    List<double[]> points = round(simplifyRing(ring, junctions, tolerance), ring, scale);
+                    if (!points.isEmpty()) {
+                        rings.add(toCoordinates(points, objectMapper));
+                    } else if (rings.isEmpty()) {
+                        // Exterior ring collapsed - the holes go with it
+                        break;
+                    }
+                }
+                if (!rings.isEmpty()) {
+                    coordinates.add(rings);
+                }
+            }
+
+            ObjectNode simplified = feature.deepCopy();
+            String type = feature.path("geometry").path("type").asText();
+            if (coordinates.isEmpty()) {
+                simplified.putNull("geometry");
+            } else {
+                ObjectNode geometry = simplified.putObject("geometry");
+                geometry.put("type", type);
+                geometry.set("coordinates", "Polygon".equals(type) ? coordinates.get(0) : coordinates);
+            }
+            resultFeatures.add(simplified);
+        }
+        return result;
+    }
+
+    /**
+     * Indices of the vertices kept from an open ring, empty when a ring with junctions collapses
+     */
+    private static List<Integer> simplifyRing(double[] ring, Set<PolygonRings.Point> junctions, double tolerance) {
+        int n = ring.length / 2;
+        List<Integer> kept = new ArrayList<>();
+        if (n < 3) {
+            for (int i = 0; i < n; i++) {
+                kept.add(i);
+            }
+            return kept;
+        }
+
+        List<Integer> anchors = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (junctions.contains(PolygonRings.point(ring, i))) {
+                anchors.add(i);
+            }
+        }
+        boolean shared = !anchors.isEmpty();
+        if (!shared) {
+            // Same start for a ring that is also a hole of another polygon
+            anchors.add(PolygonRings.lowestPoint(ring));
+        }
+        if (anchors.size() == 1) {
+            int anchor = anchors.get(0);
+            int farthest = farthestFrom(ring, anchor);
+            anchors.add(farthest);
+            anchors.sort(null);
+        }
+
+        boolean[] keep = new boolean[n];
+        for (int k = 0; k < anchors.size(); k++) {
+            int from = anchors.get(k);
+            int to = anchors.get((k + 1) % anchors.size());
+            keep[from] = true;
+            douglasPeucker(ring, from, to <= from ? to + n : to, tolerance * tolerance, keep);
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                kept.add(i);
+            }
+        }
+
+        if (kept.size() >= 3) {
+            return kept;
+        }
+        if (shared) {
+            // Extra vertices would sit on boundaries the neighbours simplified away
+            return List.of();
+        }
+
+        // Too small for the tolerance - keep a triangle so the feature stays visible
+        int first = PolygonRings.lowestPoint(ring);
+        int second = farthestFrom(ring, first);
+        int third = first;
+        double max = -1;
+        for (int i = 0; i < n; i++) {
+            double distance = segmentDistanceSq(ring, i, first, second);
+            if (distance > max || (distance == max && PolygonRings.isLower(ring, i, third))) {
+                max = distance;
+                third = i;
+            }
+        }
+        return new ArrayList<>(new TreeSet<>(List.of(first, second, third)));
+    }
+
+    /**
+     * Marks the vertices to keep strictly between from and to (positions may run past n, taken mod n)
+     */
+    private static void douglasPeucker(double[] ring, int from, int to, double toleranceSq, boolean[] keep) {
+        int n = ring.length / 2;
+        List<int[]> stack = new ArrayList<>();
+        stack.add(new int[]{from, to});
+        while (!stack.isEmpty()) {
+            int[] range = stack.remove(stack.size() - 1);
+            int start = range[0];
+            int end = range[1];
+
+            double max = -1;
+            int index = -1;
+            for (int i = start + 1; i < end; i++) {
+                double distance = segmentDistanceSq(ring, i % n, start % n, end % n);
+                if (distance > max || (distance == max && PolygonRings.isLower(ring, i % n, index % n))) {
+                    max = distance;
+                    index = i;
+                }
+            }
+
+            if (index >= 0 && max > toleranceSq) {
+                keep[index % n] = true;
+                stack.add(new int[]{start, index});
+                stack.add(new int[]{index, end});
+            }
+        }
+    }
+
+    private static int farthestFrom(double[] ring, int from) {
+        int farthest = from;
+        double max = -1;
+        for (int i = 0; i < ring.length / 2; i++) {
+            double dx = ring[2 * i] - ring[2 * from];
+            double dy = ring[2 * i + 1] - ring[2 * from + 1];
+            double distance = dx * dx + dy * dy;
+            if (distance > max || (distance == max && PolygonRings.isLower(ring, i, farthest))) {
+                max = distance;
+                farthest = i;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Squared distance of vertex p from segment a-b, computed from the lower end so it does not depend on direction
+     */
+    private static double segmentDistanceSq(double[] ring, int p, int a, int b) {
+        if (PolygonRings.isLower(ring, b, a)) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        double px = ring[2 * p];
+        double py = ring[2 * p + 1];
+        double ax = ring[2 * a];
+        double ay = ring[2 * a + 1];
+        double dx = ring[2 * b] - ax;
+        double dy = ring[2 * b + 1] - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSq));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+
+    /**
+     * Kept vertices rounded to the output precision, consecutive duplicates removed
+     * Empty when the ring collapses below a triangle - its neighbours round to the same points
+     */
+    private static List<double[]> round(List<Integer> kept, double[] ring, double scale) {
+        List<double[]> points = new ArrayList<>(kept.size());
+        for (int index : kept) {
+            double[] point = {Math.round(ring[2 * index] * scale) / scale, Math.round(ring[2 * index + 1] * scale) / scale};
+            double[] last = points.isEmpty() ? null : points.get(points.size() - 1);
+            if (last == null || last[0] != point[0] || last[1] != point[1]) {
+                points.add(point);
+            }
+        }
+        if (points.size() > 1) {
+            double[] first = points.get(0);
+            double[] last = points.get(points.size() - 1);
+            if (first[0] == last[0] && first[1] == last[1]) {
+                points.remove(points.size() - 1);
+            }
+        }
+        if (points.size() < 3) {
+            points.clear();
+        }
+        return points;
+    }
+
+    private static ArrayNode toCoordinates(List<double[]> points, ObjectMapper objectMapper) {
+        ArrayNode ring = objectMapper.createArrayNode();
+        for (double[] point : points) {
+            ring.addArray().add(point[0]).add(point[1]);
+        }
+        // GeoJSON rings are closed
+        if (!points.isEmpty()) {
+            ring.addArray().add(points.get(0)[0]).add(points.get(0)[1]);
+        }
+        return ring;
+    }
+}
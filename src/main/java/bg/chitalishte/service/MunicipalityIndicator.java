@@ -0,0 +1,113 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import bg.chitalishte.entity.MunicipalityMetrics;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Numeric indicators of MunicipalityMetrics
+ * Key matches the field name in MunicipalityMetricsDTO (used in URLs and responses)
+ */
+public enum MunicipalityIndicator {
+
+    TOTAL_CHITALISHTA("totalChitalishta",
+            MunicipalityMetrics::getTotalChitalishta, MunicipalityMetricsDTO::getTotalChitalishta),
+    VILLAGE_CHITALISHTA("villageChitalishta",
+            MunicipalityMetrics::getVillageChitalishta, MunicipalityMetricsDTO::getVillageChitalishta),
+    CITY_CHITALISHTA("cityChitalishta",
+            MunicipalityMetrics::getCityChitalishta, MunicipalityMetricsDTO::getCityChitalishta),
+    STATE_SUBSIDY_AMOUNT("stateSubsidyAmount",
+            MunicipalityMetrics::getStateSubsidyAmount, MunicipalityMetricsDTO::getStateSubsidyAmount),
+    STATE_SUBSIDY_PER_CAPITA("stateSubsidyPerCapita",
+            MunicipalityMetrics::getStateSubsidyPerCapita, MunicipalityMetricsDTO::getStateSubsidyPerCapita),
+    ADDITIONAL_POSITIONS("additionalPositions",
+            MunicipalityMetrics::getAdditionalPositions, MunicipalityMetricsDTO::getAdditionalPositions),
+    REVENUE_FROM_SUBSIDIES_PERCENT("revenueFromSubsidiesPercent",
+            MunicipalityMetrics::getRevenueFromSubsidiesPercent, MunicipalityMetricsDTO::getRevenueFromSubsidiesPercent),
+    REVENUE_FROM_RENT_PERCENT("revenueFromRentPercent",
+            MunicipalityMetrics::getRevenueFromRentPercent, MunicipalityMetricsDTO::getRevenueFromRentPercent),
+    REVENUE_FROM_OTHER_PERCENT("revenueFromOtherPercent",
+            MunicipalityMetrics::getRevenueFromOtherPercent, MunicipalityMetricsDTO::getRevenueFromOtherPercent),
+    EXPENSES_FOR_SALARIES_PERCENT("expensesForSalariesPercent",
+            MunicipalityMetrics::getExpensesForSalariesPercent, MunicipalityMetricsDTO::getExpensesForSalariesPercent),
+    EXPENSES_OTHER_PERCENT("expensesOtherPercent",
+            MunicipalityMetrics::getExpensesOtherPercent, MunicipalityMetricsDTO::getExpensesOtherPercent),
+    TOTAL_STAFF("totalStaff",
+            MunicipalityMetrics::getTotalStaff, MunicipalityMetricsDTO::getTotalStaff),
+    UNIQUE_EMPLOYMENT_CONTRACTS("uniqueEmploymentContracts",
+            MunicipalityMetrics::getUniqueEmploymentContracts, MunicipalityMetricsDTO::getUniqueEmploymentContracts),
+    STAFF_HIGHER_EDUCATION_PERCENT("staffHigherEducationPercent",
+            MunicipalityMetrics::getStaffHigherEducationPercent, MunicipalityMetricsDTO::getStaffHigherEducationPercent),
+    STAFF_SECONDARY_EDUCATION_PERCENT("staffSecondaryEducationPercent",
+            MunicipalityMetrics::getStaffSecondaryEducationPercent, MunicipalityMetricsDTO::getStaffSecondaryEducationPercent),
+    SECRETARIES_COUNT("secretariesCount",
+            MunicipalityMetrics::getSecretariesCount, MunicipalityMetricsDTO::getSecretariesCount),
+    SECRETARIES_HIGHER_EDUCATION_PERCENT("secretariesHigherEducationPercent",
+            MunicipalityMetrics::getSecretariesHigherEducationPercent, MunicipalityMetricsDTO::getSecretariesHigherEducationPercent),
+    AVERAGE_INSURANCE_INCOME("averageInsuranceIncome",
+            MunicipalityMetrics::getAverageInsuranceIncome, MunicipalityMetricsDTO::getAverageInsuranceIncome),
+    CHITALISHTA_NO_TRAINING_PERCENT("chitalishtaNoTrainingPercent",
+            MunicipalityMetrics::getChitalishtaNoTrainingPercent, MunicipalityMetricsDTO::getChitalishtaNoTrainingPercent),
+    CHITALISHTA_PER_10K_RESIDENTS("chitalishtaPer10kResidents",
+            MunicipalityMetrics::getChitalishtaPer10kResidents, MunicipalityMetricsDTO::getChitalishtaPer10kResidents),
+    CHITALISHTA_PER_1K_CHILDREN_UNDER_15("chitalishtaPer1kChildrenUnder15",
+            MunicipalityMetrics::getChitalishtaPer1kChildrenUnder15, MunicipalityMetricsDTO::getChitalishtaPer1kChildrenUnder15),
+    CHITALISHTA_PER_1K_STUDENTS("chitalishtaPer1kStudents",
+            MunicipalityMetrics::getChitalishtaPer1kStudents, MunicipalityMetricsDTO::getChitalishtaPer1kStudents),
+    CHITALISHTA_PER_1K_KINDERGARTEN("chitalishtaPer1kKindergarten",
+            MunicipalityMetrics::getChitalishtaPer1kKindergarten, MunicipalityMetricsDTO::getChitalishtaPer1kKindergarten),
+    CHITALISHTA_PER_1K_ELDERLY("chitalishtaPer1kElderly",
+            MunicipalityMetrics::getChitalishtaPer1kElderly, MunicipalityMetricsDTO::getChitalishtaPer1kElderly);
+
+    private static final Map<String, MunicipalityIndicator> BY_KEY = Arrays.stream(values())
+            .collect(Collectors.toMap(MunicipalityIndicator::getKey, Function.identity()));
+
+    private final String key;
+    private final Function<MunicipalityMetrics, Number> accessor;
+    private final Function<MunicipalityMetricsDTO, Number> dtoAccessor;
+
+    MunicipalityIndicator(String key, Function<MunicipalityMetrics, Number> accessor,
+                          Function<MunicipalityMetricsDTO, Number> dtoAccessor) {
+        this.key = key;
+        this.accessor = accessor;
+        this.dtoAccessor = dtoAccessor;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Indicator value as BigDecimal, null when not calculated
+     */
+    public BigDecimal valueOf(MunicipalityMetrics metrics) {
+        return toBigDecimal(accessor.apply(metrics));
+    }
+
+    /**
+     * Indicator value of a metrics DTO (snapshot / read model), null when not calculated
+     */
+    public BigDecimal valueOf(MunicipalityMetricsDTO metrics) {
+        return toBigDecimal(dtoAccessor.apply(metrics));
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    public static MunicipalityIndicator fromKey(String key) {
+        MunicipalityIndicator indicator = BY_KEY.get(key);
+        if (indicator == null) {
+            throw new IllegalArgumentException("Unknown indicator: " + key);
+        }
+        return indicator;
+    }
+}
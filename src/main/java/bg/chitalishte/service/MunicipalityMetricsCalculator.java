@@ -0,0 +1,276 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.entity.Municipality;
+import bg.chitalishte.entity.MunicipalityMetrics;
+import bg.chitalishte.entity.MunicipalityYearData;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Formulas of the 24 municipality indicators (see CALCULATIONS.md)
+ * Pure calculation - callers load the inputs, so the same formulas serve
+ * the reference-year metrics and the per-year metrics engine
+ */
+@Component
+public class MunicipalityMetricsCalculator {
+
+    private static final BigDecimal SUBSIDY_PER_POSITION = new BigDecimal("19555");
+
+    /**
+     * Inputs of one calculation
+     *
+     * @param nsiData          NSI survey data (revenue, expenses, staff)
+     * @param napData          NAP data (insurance income, employment contracts)
+     * @param subsidyData      subsidized and additional positions
+     * @param populationData   students and kindergarten counts
+     * @param noTrainingCount  chitalishta without training participation (registry)
+     */
+    public record MetricsInputs(
+            Municipality municipality,
+            MunicipalityYearData nsiData,
+            MunicipalityYearData napData,
+            MunicipalityYearData subsidyData,
+            MunicipalityYearData populationData,
+            Integer totalChitalishta,
+            Integer villageChitalishta,
+            Integer cityChitalishta,
+            Long noTrainingCount) {
+    }
+
+    /**
+     * Calculate all indicators into the given metrics instance
+     */
+    public void calculate(MunicipalityMetrics metrics, MetricsInputs inputs) {
+        // Calculate basic information
+        calculateBasicInfo(metrics, inputs);
+
+        // Calculate revenue and expenses
+        calculateRevenueAndExpenses(metrics, inputs.nsiData());
+
+        // Calculate personnel metrics
+        calculatePersonnelMetrics(metrics, inputs);
+
+        // Calculate population-based metrics
+        calculatePopulationMetrics(metrics, inputs);
+    }
+
+    /**
+     * Calculate basic information (6 indicators)
+     */
+    private void calculateBasicInfo(MunicipalityMetrics metrics, MetricsInputs inputs) {
+        Municipality municipality = inputs.municipality();
+        MunicipalityYearData subsidyData = inputs.subsidyData();
+
+        // Total chitalishta
+        metrics.setTotalChitalishta(inputs.totalChitalishta());
+
+        // Village chitalishta
+        metrics.setVillageChitalishta(inputs.villageChitalishta());
+
+        // City chitalishta
+        metrics.setCityChitalishta(inputs.cityChitalishta());
+
+        if (subsidyData != null && subsidyData.getSubsidizedPositions() != null) {
+            // State subsidy amount: FA × 19,555
+            BigDecimal subsidyAmount = new BigDecimal(subsidyData.getSubsidizedPositions())
+                    .multiply(SUBSIDY_PER_POSITION);
+            metrics.setStateSubsidyAmount(subsidyAmount);
+
+            // State subsidy per capita: (FA × 19,555) / DS
+            if (municipality.getMunicipalityPopulation() != null && municipality.getMunicipalityPopulation() > 0) {
+                BigDecimal perCapita = subsidyAmount
+                        .divide(new BigDecimal(municipality.getMunicipalityPopulation()), 2, RoundingMode.HALF_UP);
+                metrics.setStateSubsidyPerCapita(perCapita);
+            }
+
+            // Additional positions
+            metrics.setAdditionalPositions(subsidyData.getAdditionalPositions());
+        }
+    }
+
+    /**
+     * Calculate revenue and expenses (5 indicators)
+     */
+    private void calculateRevenueAndExpenses(MunicipalityMetrics metrics, MunicipalityYearData nsiData) {
+        if (nsiData == null) {
+            return;
+        }
+
+        BigDecimal totalRevenue = nsiData.getTotalRevenueThousands();
+        BigDecimal subsidyRevenue = nsiData.getRevenueFromSubsidiesThousands();
+        BigDecimal rentRevenue = nsiData.getRevenueFromRentThousands();
+        BigDecimal totalExpenses = nsiData.getTotalExpensesThousands();
+        BigDecimal salariesExpenses = nsiData.getExpensesSalariesThousands();
+        BigDecimal socialSecurityExpenses = nsiData.getExpensesSocialSecurityThousands();
+
+        if (totalRevenue != null && totalRevenue.compareTo(BigDecimal.ZERO) > 0) {
+            // Revenue from subsidies %: (ES / ER) × 100
+            if (subsidyRevenue != null) {
+                BigDecimal percent = subsidyRevenue.divide(totalRevenue, 4, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("100"));
+                metrics.setRevenueFromSubsidiesPercent(percent.setScale(2, RoundingMode.HALF_UP));
+            }
+
+            // Revenue from rent %: (ET / ER) × 100
+            if (rentRevenue != null) {
+                BigDecimal percent = rentRevenue.divide(totalRevenue, 4, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("100"));
+                metrics.setRevenueFromRentPercent(percent.setScale(2, RoundingMode.HALF_UP));
+            }
+
+            // Revenue from other %: ((ER - (ES + ET)) / ER) × 100
+            if (subsidyRevenue != null && rentRevenue != null) {
+                BigDecimal otherRevenue = totalRevenue.subtract(subsidyRevenue).subtract(rentRevenue);
+                BigDecimal percent = otherRevenue.divide(totalRevenue, 4, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("100"));
+                metrics.setRevenueFromOtherPercent(percent.setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+
+        if (totalExpenses != null && totalExpenses.compareTo(BigDecimal.ZERO) > 0) {
+            // Expenses for salaries %: ((EV + EW) / EU) × 100
+            if (salariesExpenses != null && socialSecurityExpenses != null) {
+                BigDecimal totalSalaries = salariesExpenses.add(socialSecurityExpenses);
+                BigDecimal percent = totalSalaries.divide(totalExpenses, 4, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("100"));
+                metrics.setExpensesForSalariesPercent(percent.setScale(2, RoundingMode.HALF_UP));
+            }
+
+            // Other expenses %: ((EU - (EV + EW)) / EU) × 100
+            if (salariesExpenses != null && socialSecurityExpenses != null) {
+                BigDecimal totalSalaries = salariesExpenses.add(socialSecurityExpenses);
+                BigDecimal otherExpenses = totalExpenses.subtract(totalSalaries);
+                BigDecimal percent = otherExpenses.divide(totalExpenses, 4, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("100"));
+                metrics.setExpensesOtherPercent(percent.setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+    }
+
+    /**
+     * Calculate personnel metrics (8 indicators)
+     */
+    private void calculatePersonnelMetrics(MunicipalityMetrics metrics, MetricsInputs inputs) {
+        MunicipalityYearData nsiData = inputs.nsiData();
+        MunicipalityYearData napData = inputs.napData();
+
+        if (nsiData == null) {
+            return;
+        }
+
+        // Total staff (NSI 2022)
+        metrics.setTotalStaff(nsiData.getTotalStaffCount());
+
+        Integer totalStaff = nsiData.getTotalStaffCount();
+        Integer higherEdu = nsiData.getStaffHigherEducationCount();
+        Integer secondaryEdu = nsiData.getStaffSecondaryEducationCount();
+        Integer secretaries = nsiData.getSecretariesCount();
+        Integer secretariesHigherEdu = nsiData.getSecretariesHigherEducationCount();
+
+        // Staff higher education %: (EI / EH) × 100
+        if (totalStaff != null && totalStaff > 0 && higherEdu != null) {
+            BigDecimal percent = new BigDecimal(higherEdu)
+                    .divide(new BigDecimal(totalStaff), 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+            metrics.setStaffHigherEducationPercent(percent.setScale(2, RoundingMode.HALF_UP));
+        }
+
+        // Staff secondary education %: (EJ / EH) × 100
+        if (totalStaff != null && totalStaff > 0 && secondaryEdu != null) {
+            BigDecimal percent = new BigDecimal(secondaryEdu)
+                    .divide(new BigDecimal(totalStaff), 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+            metrics.setStaffSecondaryEducationPercent(percent.setScale(2, RoundingMode.HALF_UP));
+        }
+
+        // Secretaries count
+        metrics.setSecretariesCount(secretaries);
+
+        // Secretaries higher education %: (EO / EN) × 100
+        if (secretaries != null && secretaries > 0 && secretariesHigherEdu != null) {
+            BigDecimal percent = new BigDecimal(secretariesHigherEdu)
+                    .divide(new BigDecimal(secretaries), 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+            metrics.setSecretariesHigherEducationPercent(percent.setScale(2, RoundingMode.HALF_UP));
+        }
+
+        // NAP 2023 data
+        if (napData != null) {
+            metrics.setAverageInsuranceIncome(napData.getAverageInsuranceIncome());
+            metrics.setUniqueEmploymentContracts(napData.getUniqueEmploymentContracts());
+        }
+
+        // Chitalishta with no training %: (COUNT where CX=0 / V) × 100
+        Long noTraining = inputs.noTrainingCount();
+        Integer totalChitalishta = metrics.getTotalChitalishta();
+
+        if (noTraining != null && totalChitalishta != null && totalChitalishta > 0) {
+            BigDecimal percent = new BigDecimal(noTraining)
+                    .divide(new BigDecimal(totalChitalishta), 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+            metrics.setChitalishtaNoTrainingPercent(percent.setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    /**
+     * Calculate population-based metrics (5 indicators)
+     */
+    private void calculatePopulationMetrics(MunicipalityMetrics metrics, MetricsInputs inputs) {
+        Municipality municipality = inputs.municipality();
+        MunicipalityYearData yearData = inputs.populationData();
+        Integer totalChitalishta = metrics.getTotalChitalishta();
+        Integer population = municipality.getMunicipalityPopulation();
+
+        if (totalChitalishta == null || totalChitalishta == 0) {
+            return;
+        }
+
+        BigDecimal chitalishtaCount = new BigDecimal(totalChitalishta);
+
+        // Chitalishta per 10k residents: (V / DS) × 10,000
+        if (population != null && population > 0) {
+            BigDecimal per10k = chitalishtaCount
+                    .divide(new BigDecimal(population), 5, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("10000"));
+            metrics.setChitalishtaPer10kResidents(per10k.setScale(1, RoundingMode.HALF_UP));
+        }
+
+        // Chitalishta per 1k children under 15: (V / DT) × 1,000
+        Integer childrenUnder15 = municipality.getPopulationUnder15Aggregate();
+        if (childrenUnder15 != null && childrenUnder15 > 0) {
+            BigDecimal per1k = chitalishtaCount
+                    .divide(new BigDecimal(childrenUnder15), 5, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("1000"));
+            metrics.setChitalishtaPer1kChildrenUnder15(per1k.setScale(1, RoundingMode.HALF_UP));
+        }
+
+        // Chitalishta per 1k elderly (65+): (V / DV) × 1,000
+        Integer elderly = municipality.getPopulationOver65Aggregate();
+        if (elderly != null && elderly > 0) {
+            BigDecimal per1k = chitalishtaCount
+                    .divide(new BigDecimal(elderly), 5, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("1000"));
+            metrics.setChitalishtaPer1kElderly(per1k.setScale(1, RoundingMode.HALF_UP));
+        }
+
+        if (yearData != null) {
+            // Chitalishta per 1k students: (V / FU) × 1,000
+            if (yearData.getStudentsNumber() != null && yearData.getStudentsNumber() > 0) {
+                BigDecimal per1k = chitalishtaCount
+                        .divide(new BigDecimal(yearData.getStudentsNumber()), 5, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("1000"));
+                metrics.setChitalishtaPer1kStudents(per1k.setScale(1, RoundingMode.HALF_UP));
+            }
+
+            // Chitalishta per 1k kindergarten: (V / FY) × 1,000
+            if (yearData.getKidsKindergartens() != null && yearData.getKidsKindergartens() > 0) {
+                BigDecimal per1k = chitalishtaCount
+                        .divide(new BigDecimal(yearData.getKidsKindergartens()), 5, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("1000"));
+                metrics.setChitalishtaPer1kKindergarten(per1k.setScale(1, RoundingMode.HALF_UP));
+            }
+        }
+    }
+}
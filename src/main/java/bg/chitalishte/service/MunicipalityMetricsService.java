@@ -1,20 +1,32 @@
 package bg.chitalishte.service;
 
+import bg.chitalishte.dto.BatchGetResponseDTO;
 import bg.chitalishte.dto.MunicipalityMetricsDTO;
+import bg.chitalishte.dto.MunicipalityMetricsHistoryDTO;
 import bg.chitalishte.entity.Municipality;
 import bg.chitalishte.entity.MunicipalityMetrics;
+import bg.chitalishte.entity.MunicipalityMetricsSnapshot;
 import bg.chitalishte.entity.MunicipalityYearData;
+import bg.chitalishte.event.MetricsRecalculatedEvent;
 import bg.chitalishte.mapper.MunicipalityMetricsMapper;
 import bg.chitalishte.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service for calculating and managing municipality metrics
@@ -29,12 +41,25 @@ public class MunicipalityMetricsService {
     private final ChitalishteRepository chitalishteRepository;
     private final ChitalishteYearDataRepository chitalishteYearDataRepository;
     private final MunicipalityRepository municipalityRepository;
+    private final MunicipalityMetricsSnapshotRepository snapshotRepository;
+    private final MunicipalityMetricsViewRepository metricsViewRepository;
     private final MunicipalityMetricsMapper metricsMapper;
+    private final MunicipalityRankingService rankingService;
+    private final RegionAggregateService regionAggregateService;
+    private final MunicipalityYearMetricsService yearMetricsService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final MunicipalityMetricsCalculator calculator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private static final BigDecimal SUBSIDY_PER_POSITION = new BigDecimal("19555");
-    private static final int REFERENCE_YEAR_NSI = 2022;
-    private static final int REFERENCE_YEAR_NAP = 2023;
-    private static final int REFERENCE_YEAR_REGISTRY = 2023;
+    // Reference years of the "current" metrics (configurable, no redeploy needed)
+    @Value("${metrics.reference-years.nsi:2022}")
+    private int referenceYearNsi;
+
+    @Value("${metrics.reference-years.nap:2023}")
+    private int referenceYearNap;
+
+    @Value("${metrics.reference-years.registry:2023}")
+    private int referenceYearRegistry;
 
     /**
      * Calculate and save metrics for a municipality
@@ -48,22 +73,23 @@ public class MunicipalityMetricsService {
                         .municipality(municipality)
                         .build());
 
+        String municipalityCode = municipality.getMunicipalityCode();
+
         // Get year data for calculations
-        MunicipalityYearData nsiData = getYearData(municipality, REFERENCE_YEAR_NSI);
-        MunicipalityYearData napData = getYearData(municipality, REFERENCE_YEAR_NAP);
+        MunicipalityYearData nsiData = getYearData(municipality, referenceYearNsi);
+        MunicipalityYearData napData = getYearData(municipality, referenceYearNap);
         MunicipalityYearData subsidyData = getLatestYearData(municipality);
 
-        // Calculate basic information
-        calculateBasicInfo(metrics, municipality, subsidyData);
-
-        // Calculate revenue and expenses
-        calculateRevenueAndExpenses(metrics, nsiData);
-
-        // Calculate personnel metrics
-        calculatePersonnelMetrics(metrics, nsiData, napData);
-
-        // Calculate population-based metrics
-        calculatePopulationMetrics(metrics, municipality, subsidyData);
+        calculator.calculate(metrics, new MunicipalityMetricsCalculator.MetricsInputs(
+                municipality,
+                nsiData,
+                napData,
+                subsidyData,
+                subsidyData,
+                municipality.getTotalChitalishta(),
+                chitalishteRepository.countVillageChitalishta(municipalityCode).intValue(),
+                chitalishteRepository.countCityChitalishta(municipalityCode).intValue(),
+                chitalishteYearDataRepository.countChitalishtaWithNoTraining(municipalityCode, referenceYearRegistry)));
 
         MunicipalityMetrics saved = metricsRepository.save(metrics);
         log.info("Metrics calculated and saved for municipality: {}", municipality.getMunicipalityCode());
@@ -79,12 +105,13 @@ public class MunicipalityMetricsService {
         log.info("Starting calculation of metrics for all municipalities");
 
         List<Municipality> municipalities = municipalityRepository.findAll();
+        List<MunicipalityMetrics> calculated = new ArrayList<>();
         int successCount = 0;
         int errorCount = 0;
 
         for (Municipality municipality : municipalities) {
             try {
-                calculateAndSaveMetrics(municipality);
+                calculated.add(calculateAndSaveMetrics(municipality));
                 successCount++;
 
                 if (successCount % 50 == 0) {
@@ -99,232 +126,95 @@ public class MunicipalityMetricsService {
 
         log.info("Metrics calculation completed: success={}, errors={}, total={}",
                 successCount, errorCount, municipalities.size());
-    }
 
-    /**
-     * Get metrics DTO for municipality by code
-     */
-    @Transactional(readOnly = true)
-    public Optional<MunicipalityMetricsDTO> getMetrics(String municipalityCode) {
-        log.info("Fetching metrics for municipality: {}", municipalityCode);
+        // Ranks are computed in memory, roll-ups read municipality_metrics through JDBC
+        metricsRepository.flush();
+
+        rankingService.recalculateRanks(calculated);
+        regionAggregateService.recalculateAll(referenceYearNsi);
+        UUID runId = recordSnapshots(calculated);
 
-        return metricsRepository.findByMunicipalityCode(municipalityCode)
-                .map(metricsMapper::toDTO);
+        yearMetricsService.calculateAllYears();
+
+        eventPublisher.publishEvent(new MetricsRecalculatedEvent(runId, calculated.size()));
     }
 
     /**
-     * Calculate basic information (6 indicators)
+     * Refresh the metrics read model once the run is committed
      */
-    private void calculateBasicInfo(MunicipalityMetrics metrics, Municipality municipality, MunicipalityYearData subsidyData) {
-        String municipalityCode = municipality.getMunicipalityCode();
-
-        // Total chitalishta
-        metrics.setTotalChitalishta(municipality.getTotalChitalishta());
-
-        // Village chitalishta
-        Long village = chitalishteRepository.countVillageChitalishta(municipalityCode);
-        metrics.setVillageChitalishta(village.intValue());
-
-        // City chitalishta
-        Long city = chitalishteRepository.countCityChitalishta(municipalityCode);
-        metrics.setCityChitalishta(city.intValue());
-
-        if (subsidyData != null && subsidyData.getSubsidizedPositions() != null) {
-            // State subsidy amount: FA × 19,555
-            BigDecimal subsidyAmount = new BigDecimal(subsidyData.getSubsidizedPositions())
-                    .multiply(SUBSIDY_PER_POSITION);
-            metrics.setStateSubsidyAmount(subsidyAmount);
-
-            // State subsidy per capita: (FA × 19,555) / DS
-            if (municipality.getMunicipalityPopulation() != null && municipality.getMunicipalityPopulation() > 0) {
-                BigDecimal perCapita = subsidyAmount
-                        .divide(new BigDecimal(municipality.getMunicipalityPopulation()), 2, RoundingMode.HALF_UP);
-                metrics.setStateSubsidyPerCapita(perCapita);
-            }
-
-            // Additional positions
-            metrics.setAdditionalPositions(subsidyData.getAdditionalPositions());
-        }
+    @Order(0)
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refreshReadModel(MetricsRecalculatedEvent event) {
+        long start = System.currentTimeMillis();
+        metricsViewRepository.refresh();
+        log.info("Refreshed municipality_metrics_view after run {} in {} ms",
+                event.runId(), System.currentTimeMillis() - start);
     }
 
     /**
-     * Calculate revenue and expenses (5 indicators)
+     * Append the results of one run to municipality_metrics_history
+     * All rows share the same run id and are inserted as a single batch
      */
-    private void calculateRevenueAndExpenses(MunicipalityMetrics metrics, MunicipalityYearData nsiData) {
-        if (nsiData == null) {
-            return;
+    private UUID recordSnapshots(List<MunicipalityMetrics> calculated) {
+        UUID runId = UUID.randomUUID();
+        if (calculated.isEmpty()) {
+            return runId;
         }
 
-        BigDecimal totalRevenue = nsiData.getTotalRevenueThousands();
-        BigDecimal subsidyRevenue = nsiData.getRevenueFromSubsidiesThousands();
-        BigDecimal rentRevenue = nsiData.getRevenueFromRentThousands();
-        BigDecimal totalExpenses = nsiData.getTotalExpensesThousands();
-        BigDecimal salariesExpenses = nsiData.getExpensesSalariesThousands();
-        BigDecimal socialSecurityExpenses = nsiData.getExpensesSocialSecurityThousands();
-
-        if (totalRevenue != null && totalRevenue.compareTo(BigDecimal.ZERO) > 0) {
-            // Revenue from subsidies %: (ES / ER) × 100
-            if (subsidyRevenue != null) {
-                BigDecimal percent = subsidyRevenue.divide(totalRevenue, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
-                metrics.setRevenueFromSubsidiesPercent(percent.setScale(2, RoundingMode.HALF_UP));
-            }
-
-            // Revenue from rent %: (ET / ER) × 100
-            if (rentRevenue != null) {
-                BigDecimal percent = rentRevenue.divide(totalRevenue, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
-                metrics.setRevenueFromRentPercent(percent.setScale(2, RoundingMode.HALF_UP));
-            }
-
-            // Revenue from other %: ((ER - (ES + ET)) / ER) × 100
-            if (subsidyRevenue != null && rentRevenue != null) {
-                BigDecimal otherRevenue = totalRevenue.subtract(subsidyRevenue).subtract(rentRevenue);
-                BigDecimal percent = otherRevenue.divide(totalRevenue, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
-                metrics.setRevenueFromOtherPercent(percent.setScale(2, RoundingMode.HALF_UP));
-            }
-        }
+        LocalDateTime calculatedAt = LocalDateTime.now();
 
-        if (totalExpenses != null && totalExpenses.compareTo(BigDecimal.ZERO) > 0) {
-            // Expenses for salaries %: ((EV + EW) / EU) × 100
-            if (salariesExpenses != null && socialSecurityExpenses != null) {
-                BigDecimal totalSalaries = salariesExpenses.add(socialSecurityExpenses);
-                BigDecimal percent = totalSalaries.divide(totalExpenses, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
-                metrics.setExpensesForSalariesPercent(percent.setScale(2, RoundingMode.HALF_UP));
-            }
+        List<MunicipalityMetricsSnapshot> snapshots = calculated.stream()
+                .map(metrics -> metricsMapper.toSnapshot(metrics, runId, referenceYearNsi, calculatedAt))
+                .collect(Collectors.toList());
 
-            // Other expenses %: ((EU - (EV + EW)) / EU) × 100
-            if (salariesExpenses != null && socialSecurityExpenses != null) {
-                BigDecimal totalSalaries = salariesExpenses.add(socialSecurityExpenses);
-                BigDecimal otherExpenses = totalExpenses.subtract(totalSalaries);
-                BigDecimal percent = otherExpenses.divide(totalExpenses, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
-                metrics.setExpensesOtherPercent(percent.setScale(2, RoundingMode.HALF_UP));
-            }
-        }
+        snapshotRepository.saveAll(snapshots);
+        log.info("Recorded metrics snapshot run {} for {} municipalities", runId, snapshots.size());
+        return runId;
     }
 
     /**
-     * Calculate personnel metrics (8 indicators)
+     * Get metrics DTO for municipality by code
      */
-    private void calculatePersonnelMetrics(MunicipalityMetrics metrics, MunicipalityYearData nsiData, MunicipalityYearData napData) {
-        if (nsiData == null) {
-            return;
-        }
-
-        // Total staff (NSI 2022)
-        metrics.setTotalStaff(nsiData.getTotalStaffCount());
-
-        Integer totalStaff = nsiData.getTotalStaffCount();
-        Integer higherEdu = nsiData.getStaffHigherEducationCount();
-        Integer secondaryEdu = nsiData.getStaffSecondaryEducationCount();
-        Integer secretaries = nsiData.getSecretariesCount();
-        Integer secretariesHigherEdu = nsiData.getSecretariesHigherEducationCount();
-
-        // Staff higher education %: (EI / EH) × 100
-        if (totalStaff != null && totalStaff > 0 && higherEdu != null) {
-            BigDecimal percent = new BigDecimal(higherEdu)
-                    .divide(new BigDecimal(totalStaff), 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
-            metrics.setStaffHigherEducationPercent(percent.setScale(2, RoundingMode.HALF_UP));
-        }
-
-        // Staff secondary education %: (EJ / EH) × 100
-        if (totalStaff != null && totalStaff > 0 && secondaryEdu != null) {
-            BigDecimal percent = new BigDecimal(secondaryEdu)
-                    .divide(new BigDecimal(totalStaff), 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
-            metrics.setStaffSecondaryEducationPercent(percent.setScale(2, RoundingMode.HALF_UP));
-        }
-
-        // Secretaries count
-        metrics.setSecretariesCount(secretaries);
-
-        // Secretaries higher education %: (EO / EN) × 100
-        if (secretaries != null && secretaries > 0 && secretariesHigherEdu != null) {
-            BigDecimal percent = new BigDecimal(secretariesHigherEdu)
-                    .divide(new BigDecimal(secretaries), 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
-            metrics.setSecretariesHigherEducationPercent(percent.setScale(2, RoundingMode.HALF_UP));
-        }
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<MunicipalityMetricsDTO> getMetrics(String municipalityCode) {
+        log.info("Fetching metrics for municipality: {}", municipalityCode);
 
-        // NAP 2023 data
-        if (napData != null) {
-            metrics.setAverageInsuranceIncome(napData.getAverageInsuranceIncome());
-            metrics.setUniqueEmploymentContracts(napData.getUniqueEmploymentContracts());
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().getMetrics(municipalityCode);
         }
 
-        // Chitalishta with no training %: (COUNT where CX=0 / V) × 100
-        Long noTraining = chitalishteYearDataRepository.countChitalishtaWithNoTraining(
-                metrics.getMunicipality().getMunicipalityCode(), REFERENCE_YEAR_REGISTRY);
-        Integer totalChitalishta = metrics.getTotalChitalishta();
-
-        if (totalChitalishta != null && totalChitalishta > 0) {
-            BigDecimal percent = new BigDecimal(noTraining)
-                    .divide(new BigDecimal(totalChitalishta), 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
-            metrics.setChitalishtaNoTrainingPercent(percent.setScale(2, RoundingMode.HALF_UP));
-        }
+        return metricsViewRepository.findByMunicipalityCode(municipalityCode);
     }
 
     /**
-     * Calculate population-based metrics (5 indicators)
+     * Get metrics for several municipalities (snapshot, or a single query)
      */
-    private void calculatePopulationMetrics(MunicipalityMetrics metrics, Municipality municipality, MunicipalityYearData yearData) {
-        Integer totalChitalishta = metrics.getTotalChitalishta();
-        Integer population = municipality.getMunicipalityPopulation();
-
-        if (totalChitalishta == null || totalChitalishta == 0) {
-            return;
-        }
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public BatchGetResponseDTO<MunicipalityMetricsDTO> getMetricsBatch(List<String> municipalityCodes) {
+        List<String> keys = BatchKeys.normalize(municipalityCodes);
+        log.info("Fetching metrics batch for {} municipalities", keys.size());
 
-        BigDecimal chitalishtaCount = new BigDecimal(totalChitalishta);
-
-        // Chitalishta per 10k residents: (V / DS) × 10,000
-        if (population != null && population > 0) {
-            BigDecimal per10k = chitalishtaCount
-                    .divide(new BigDecimal(population), 5, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("10000"));
-            metrics.setChitalishtaPer10kResidents(per10k.setScale(1, RoundingMode.HALF_UP));
-        }
-
-        // Chitalishta per 1k children under 15: (V / DT) × 1,000
-        Integer childrenUnder15 = municipality.getPopulationUnder15Aggregate();
-        if (childrenUnder15 != null && childrenUnder15 > 0) {
-            BigDecimal per1k = chitalishtaCount
-                    .divide(new BigDecimal(childrenUnder15), 5, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("1000"));
-            metrics.setChitalishtaPer1kChildrenUnder15(per1k.setScale(1, RoundingMode.HALF_UP));
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return BatchKeys.toResponse(keys, code -> snapshot.get().getMetrics(code).orElse(null));
         }
 
-        // Chitalishta per 1k elderly (65+): (V / DV) × 1,000
-        Integer elderly = municipality.getPopulationOver65Aggregate();
-        if (elderly != null && elderly > 0) {
-            BigDecimal per1k = chitalishtaCount
-                    .divide(new BigDecimal(elderly), 5, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("1000"));
-            metrics.setChitalishtaPer1kElderly(per1k.setScale(1, RoundingMode.HALF_UP));
-        }
+        Map<String, MunicipalityMetricsDTO> metrics = metricsViewRepository.findByMunicipalityCodes(keys);
+        return BatchKeys.toResponse(keys, metrics::get);
+    }
 
-        if (yearData != null) {
-            // Chitalishta per 1k students: (V / FU) × 1,000
-            if (yearData.getStudentsNumber() != null && yearData.getStudentsNumber() > 0) {
-                BigDecimal per1k = chitalishtaCount
-                        .divide(new BigDecimal(yearData.getStudentsNumber()), 5, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("1000"));
-                metrics.setChitalishtaPer1kStudents(per1k.setScale(1, RoundingMode.HALF_UP));
-            }
+    /**
+     * Get metrics history (one entry per run) for municipality by code
+     */
+    @Transactional(readOnly = true)
+    public List<MunicipalityMetricsHistoryDTO> getMetricsHistory(String municipalityCode) {
+        log.info("Fetching metrics history for municipality: {}", municipalityCode);
 
-            // Chitalishta per 1k kindergarten: (V / FY) × 1,000
-            if (yearData.getKidsKindergartens() != null && yearData.getKidsKindergartens() > 0) {
-                BigDecimal per1k = chitalishtaCount
-                        .divide(new BigDecimal(yearData.getKidsKindergartens()), 5, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("1000"));
-                metrics.setChitalishtaPer1kKindergarten(per1k.setScale(1, RoundingMode.HALF_UP));
-            }
-        }
+        return snapshotRepository.findHistoryByMunicipalityCode(municipalityCode).stream()
+                .map(metricsMapper::toHistoryDTO)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -0,0 +1,151 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.MunicipalityMetricRankDTO;
+import bg.chitalishte.entity.MunicipalityMetricRank;
+import bg.chitalishte.entity.MunicipalityMetrics;
+import bg.chitalishte.mapper.MunicipalityMetricsMapper;
+import bg.chitalishte.repository.MunicipalityMetricRankRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service for national and per-district ranking of municipality indicators
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MunicipalityRankingService {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final MunicipalityMetricRankRepository rankRepository;
+    private final MunicipalityMetricsMapper metricsMapper;
+
+    /**
+     * Replace all ranks with ranks computed from the given metrics
+     * Called at the end of a metrics run with the metrics of every municipality
+     */
+    @Transactional
+    public void recalculateRanks(List<MunicipalityMetrics> allMetrics) {
+        log.info("Calculating indicator ranks for {} municipalities", allMetrics.size());
+
+        List<MunicipalityMetricRank> ranks = new ArrayList<>();
+
+        for (MunicipalityIndicator indicator : MunicipalityIndicator.values()) {
+            List<RankEntry> entries = new ArrayList<>();
+            for (MunicipalityMetrics metrics : allMetrics) {
+                BigDecimal value = indicator.valueOf(metrics);
+                if (value == null) {
+                    continue;
+                }
+                entries.add(new RankEntry(value, MunicipalityMetricRank.builder()
+                        .municipalityCode(metrics.getMunicipality().getMunicipalityCode())
+                        .districtCode(metrics.getMunicipality().getDistrictCode())
+                        .indicator(indicator.getKey())
+                        .value(value)
+                        .build()));
+            }
+
+            if (entries.isEmpty()) {
+                continue;
+            }
+
+            rankGroup(entries, true);
+            entries.stream()
+                    .filter(entry -> entry.rank().getDistrictCode() != null)
+                    .collect(Collectors.groupingBy(entry -> entry.rank().getDistrictCode()))
+                    .values()
+                    .forEach(districtEntries -> rankGroup(districtEntries, false));
+            applyZScores(entries);
+
+            entries.forEach(entry -> ranks.add(entry.rank()));
+        }
+
+        rankRepository.deleteAllInBatch();
+        rankRepository.saveAll(ranks);
+
+        log.info("Saved {} indicator ranks", ranks.size());
+    }
+
+    /**
+     * Get ranks of all indicators for municipality by code
+     */
+    @Transactional(readOnly = true)
+    public List<MunicipalityMetricRankDTO> getRanks(String municipalityCode) {
+        log.info("Fetching indicator ranks for municipality: {}", municipalityCode);
+
+        return rankRepository.findByMunicipalityCodeOrderByIndicator(municipalityCode).stream()
+                .map(metricsMapper::toRankDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Competition ranking (1 = highest value, ties share the rank)
+     * Percentile = (values below + half of equal values) / count × 100
+     */
+    private void rankGroup(List<RankEntry> entries, boolean national) {
+        List<RankEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing((RankEntry entry) -> entry.value()).reversed());
+
+        int count = sorted.size();
+        int start = 0;
+        while (start < count) {
+            int end = start;
+            while (end < count && sorted.get(end).value().compareTo(sorted.get(start).value()) == 0) {
+                end++;
+            }
+
+            int below = count - end;
+            BigDecimal percentile = new BigDecimal(below * 2 + (end - start))
+                    .multiply(HUNDRED)
+                    .divide(new BigDecimal(count * 2), 2, RoundingMode.HALF_UP);
+
+            for (int i = start; i < end; i++) {
+                MunicipalityMetricRank rank = sorted.get(i).rank();
+                if (national) {
+                    rank.setNationalRank(start + 1);
+                    rank.setNationalCount(count);
+                    rank.setNationalPercentile(percentile);
+                } else {
+                    rank.setDistrictRank(start + 1);
+                    rank.setDistrictCount(count);
+                    rank.setDistrictPercentile(percentile);
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * z = (value - mean) / standard deviation, over all municipalities with a value
+     */
+    private void applyZScores(List<RankEntry> entries) {
+        double mean = entries.stream().mapToDouble(entry -> entry.value().doubleValue()).average().orElse(0);
+        double variance = entries.stream()
+                .mapToDouble(entry -> Math.pow(entry.value().doubleValue() - mean, 2))
+                .average()
+                .orElse(0);
+        double stdDev = Math.sqrt(variance);
+
+        if (stdDev == 0) {
+            return;
+        }
+
+        for (RankEntry entry : entries) {
+            double zScore = (entry.value().doubleValue() - mean) / stdDev;
+            entry.rank().setZScore(BigDecimal.valueOf(zScore).setScale(4, RoundingMode.HALF_UP));
+        }
+    }
+
+    private record RankEntry(BigDecimal value, MunicipalityMetricRank rank) {
+    }
+}
@@ -1,10 +1,10 @@
 package bg.chitalishte.service;
 
 import bg.chitalishte.dto.*;
-import bg.chitalishte.entity.Chitalishte;
 import bg.chitalishte.mapper.ChitalishteMapper;
 import bg.chitalishte.mapper.MunicipalityMapper;
 import bg.chitalishte.repository.ChitalishteRepository;
+import bg.chitalishte.repository.FuzzySearchRepository;
 import bg.chitalishte.repository.MunicipalityRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +13,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -29,37 +30,60 @@ public class MunicipalityService {
     private final ChitalishteRepository chitalishteRepository;
     private final MunicipalityMapper municipalityMapper;
     private final ChitalishteMapper chitalishteMapper;
+    private final FuzzySearchRepository fuzzySearchRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
 
+    /**
+     * Snapshot-served reads use SUPPORTS so no transaction (and no connection) is opened
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<MunicipalityDTO> getAllMunicipalities(int page, int size, String sortBy, String direction) {
         Sort.Direction dir = direction.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(dir, sortBy));
 
-        return municipalityRepository.findAll(pageable)
+        Optional<Page<MunicipalityDTO>> cached = catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.getMunicipalities(pageable));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        return municipalityRepository.findAllListViews(pageable)
                 .map(municipalityMapper::toDTO);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<MunicipalityDTO> getMunicipalityByCode(String code) {
         log.info("Fetching municipality by code: {}", code);
 
-        return municipalityRepository.findByMunicipalityCode(code)
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().getMunicipality(code);
+        }
+
+        return municipalityRepository.findListViewByMunicipalityCode(code)
                 .map(municipalityMapper::toDTO);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<ChitalishteDTO> getChitalishta(String code) {
         log.info("Fetching chitalishta for municipality: {}", code);
 
-        List<Chitalishte> chitalishta = chitalishteRepository.findByMunicipalityMunicipalityCode(code);
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().getChitalishtaByMunicipality(code);
+        }
 
-        return chitalishta.stream()
+        return chitalishteRepository.findListViewsByMunicipalityCode(code).stream()
                 .map(chitalishteMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
-    public List<MunicipalityDTO> searchMunicipalities(String query) {
-        return municipalityRepository.searchByName(query).stream()
-                .map(municipalityMapper::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Search municipalities by name (typo-tolerant, ranked by similarity)
+     * Results are capped at SearchPages.MAX_RESULTS; total is the capped number of matches
+     */
+    public Page<MunicipalityDTO> searchMunicipalities(String query, int page, int size) {
+        return SearchPages.search(query, page, size,
+                fuzzySearchRepository::searchMunicipalities, fuzzySearchRepository::countMunicipalities);
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.MunicipalityYearMetricsDTO;
+import bg.chitalishte.entity.Municipality;
+import bg.chitalishte.entity.MunicipalityMetrics;
+import bg.chitalishte.entity.MunicipalityYearData;
+import bg.chitalishte.entity.MunicipalityYearMetrics;
+import bg.chitalishte.mapper.MunicipalityMetricsMapper;
+import bg.chitalishte.repository.ChitalishteYearDataRepository;
+import bg.chitalishte.repository.MunicipalityRepository;
+import bg.chitalishte.repository.MunicipalityYearDataRepository;
+import bg.chitalishte.repository.MunicipalityYearMetricsRepository;
+import bg.chitalishte.repository.projection.MunicipalityYearCounts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Year-parameterized metrics engine
+ * Computes the indicators for every year present in municipality_year_data / chitalishte_year_data,
+ * taking NSI, NAP and registry data from the same year, and stores one row per (municipality, year)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MunicipalityYearMetricsService {
+
+    private final MunicipalityRepository municipalityRepository;
+    private final MunicipalityYearDataRepository yearDataRepository;
+    private final ChitalishteYearDataRepository chitalishteYearDataRepository;
+    private final MunicipalityYearMetricsRepository yearMetricsRepository;
+    private final MunicipalityMetricsCalculator calculator;
+    private final MunicipalityMetricsMapper metricsMapper;
+
+    /**
+     * Recalculate metrics for all municipalities and all years
+     * Source data is loaded with three queries, results are written as a single batch
+     */
+    @Transactional
+    public void calculateAllYears() {
+        long start = System.currentTimeMillis();
+
+        List<Municipality> municipalities = municipalityRepository.findAll();
+
+        Map<String, MunicipalityYearData> yearData = new HashMap<>();
+        TreeSet<Integer> years = new TreeSet<>();
+        for (MunicipalityYearData data : yearDataRepository.findAll()) {
+            yearData.put(key(data.getMunicipalityCode(), data.getYear()), data);
+            years.add(data.getYear());
+        }
+
+        Map<String, MunicipalityYearCounts> counts = new HashMap<>();
+        for (MunicipalityYearCounts row : chitalishteYearDataRepository.countByMunicipalityAndYear()) {
+            counts.put(key(row.getMunicipalityCode(), row.getYear()), row);
+            years.add(row.getYear());
+        }
+
+        LocalDateTime calculatedAt = LocalDateTime.now();
+        List<MunicipalityYearMetrics> results = new ArrayList<>();
+
+        for (Municipality municipality : municipalities) {
+            String code = municipality.getMunicipalityCode();
+
+            for (Integer year : years) {
+                MunicipalityYearData data = yearData.get(key(code, year));
+                MunicipalityYearCounts registry = counts.get(key(code, year));
+                if (data == null && registry == null) {
+                    continue;
+                }
+
+                MunicipalityMetrics metrics = new MunicipalityMetrics();
+                calculator.calculate(metrics, toInputs(municipality, data, registry));
+                results.add(metricsMapper.toYearMetrics(metrics, code, year, calculatedAt));
+            }
+        }
+
+        yearMetricsRepository.deleteAllInBatch();
+        yearMetricsRepository.saveAll(results);
+
+        log.info("Calculated yearly metrics: {} rows for years {} in {} ms",
+                results.size(), years, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Get precomputed yearly metrics series for municipality by code
+     */
+    @Transactional(readOnly = true)
+    public List<MunicipalityYearMetricsDTO> getYearMetrics(String municipalityCode) {
+        log.info("Fetching yearly metrics for municipality: {}", municipalityCode);
+
+        return yearMetricsRepository.findByMunicipalityCodeOrderByYear(municipalityCode).stream()
+                .map(metricsMapper::toYearMetricsDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Years without registry rows fall back to the current chitalishta total
+     */
+    private MunicipalityMetricsCalculator.MetricsInputs toInputs(Municipality municipality,
+                                                                 MunicipalityYearData data,
+                                                                 MunicipalityYearCounts registry) {
+        return new MunicipalityMetricsCalculator.MetricsInputs(
+                municipality,
+                data,
+                data,
+                data,
+                data,
+                registry != null ? registry.getTotalChitalishta().intValue() : municipality.getTotalChitalishta(),
+                registry != null ? registry.getVillageChitalishta().intValue() : null,
+                registry != null ? registry.getCityChitalishta().intValue() : null,
+                registry != null ? registry.getNoTrainingCount() : null);
+    }
+
+    private String key(String municipalityCode, Integer year) {
+        return municipalityCode + ":" + year;
+    }
+}
@@ -0,0 +1,236 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable spatial index of coded polygons for point-in-polygon lookups
+ * Polygons are bulk-loaded into an STR-packed R-tree; each one is kept "prepared" as flat
+ * coordinate arrays with per-ring bounding boxes, so a lookup touches only a few rings
+ * Coordinates are GeoJSON order: x = longitude, y = latitude
+ */
+public final class PolygonIndex {
+
+    private static final int NODE_CAPACITY = 10;
+
+    private final Node root;
+    private final int size;
+
+    private PolygonIndex(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Build the index from GeoJSON features (Polygon / MultiPolygon), keyed by a property
+     * Features without the property or without polygon geometry are skipped
+     */
+    public static PolygonIndex fromFeatures(JsonNode features, String codeProperty) {
+        List<Envelope> polygons = new ArrayList<>();
+        for (JsonNode feature : features) {
+            String code = feature.path("properties").path(codeProperty).asText(null);
+            if (code == null) {
+                continue;
+            }
+
+            JsonNode geometry = feature.path("geometry");
+            JsonNode coordinates = geometry.path("coordinates");
+            List<double[]> rings = new ArrayList<>();
+            switch (geometry.path("type").asText()) {
+                case "Polygon" -> addRings(coordinates, rings);
+                case "MultiPolygon" -> coordinates.forEach(polygon -> addRings(polygon, rings));
+                default -> {
+                }
+            }
+
+            if (!rings.isEmpty()) {
+                polygons.add(new Polygon(code, rings));
+            }
+        }
+
+        return new PolygonIndex(polygons.isEmpty() ? null : pack(polygons), polygons.size());
+    }
+
+    public static PolygonIndex empty() {
+        return new PolygonIndex(null, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Code of the polygon containing the point, if any
+     */
+    public Optional<String> find(double x, double y) {
+        if (root == null) {
+            return Optional.empty();
+        }
+
+        Deque<Envelope> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Envelope entry = stack.pop();
+            if (!entry.covers(x, y)) {
+                continue;
+            }
+            if (entry instanceof Polygon polygon) {
+                if (polygon.contains(x, y)) {
+                    return Optional.of(polygon.code);
+                }
+            } else {
+                for (Envelope child : ((Node) entry).children) {
+                    stack.push(child);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void addRings(JsonNode polygon, List<double[]> rings) {
+        for (JsonNode ring : polygon) {
+            if (ring.size() < 4) {
+                continue;
+            }
+            double[] flat = new double[ring.size() * 2];
+            int i = 0;
+            for (JsonNode point : ring) {
+                flat[i++] = point.get(0).asDouble();
+                flat[i++] = point.get(1).asDouble();
+            }
+            rings.add(flat);
+        }
+    }
+
+    /**
+     * Sort-Tile-Recursive bulk load: tile by x, then by y, pack full nodes and repeat per level
+     */
+    private static Node pack(List<Envelope> entries) {
+        List<Envelope> level = entries;
+        do {
+            level = packLevel(level);
+        } while (level.size() > 1);
+        return (Node) level.get(0);
+    }
+
+    private static List<Envelope> packLevel(List<Envelope> entries) {
+        int nodeCount = (entries.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+
+        List<Envelope> byX = new ArrayList<>(entries);
+        byX.sort(Comparator.comparingDouble(Envelope::centerX));
+
+        List<Envelope> nodes = new ArrayList<>(nodeCount);
+        for (int sliceStart = 0; sliceStart < byX.size(); sliceStart += sliceSize) {
+            List<Envelope> slice = new ArrayList<>(byX.subList(sliceStart, Math.min(sliceStart + sliceSize, byX.size())));
+            slice.sort(Comparator.comparingDouble(Envelope::centerY));
+            for (int start = 0; start < slice.size(); start += NODE_CAPACITY) {
+                nodes.add(new Node(slice.subList(start, Math.min(start + NODE_CAPACITY, slice.size()))));
+            }
+        }
+        return nodes;
+    }
+
+    private abstract static class Envelope {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        void expand(double x1, double y1, double x2, double y2) {
+            minX = Math.min(minX, x1);
+            minY = Math.min(minY, y1);
+            maxX = Math.max(maxX, x2);
+            maxY = Math.max(maxY, y2);
+        }
+
+        boolean covers(double x, double y) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY;
+        }
+
+        double centerX() {
+            return (minX + maxX) / 2;
+        }
+
+        double centerY() {
+            return (minY + maxY) / 2;
+        }
+    }
+
+    private static final class Node extends Envelope {
+        final Envelope[] children;
+
+        Node(List<Envelope> children) {
+            this.children = children.toArray(new Envelope[0]);
+            for (Envelope child : this.children) {
+                expand(child.minX, child.minY, child.maxX, child.maxY);
+            }
+        }
+    }
+
+    private static final class Polygon extends Envelope {
+        final String code;
+        final double[][] rings;
+        // minX, minY, maxX, maxY of each ring
+        final double[][] ringBounds;
+
+        Polygon(String code, List<double[]> rings) {
+            this.code = code;
+            this.rings = rings.toArray(new double[0][]);
+            this.ringBounds = new double[this.rings.length][];
+            for (int r = 0; r < this.rings.length; r++) {
+                double[] ring = this.rings[r];
+                double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                        Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+                for (int i = 0; i < ring.length; i += 2) {
+                    bounds[0] = Math.min(bounds[0], ring[i]);
+                    bounds[1] = Math.min(bounds[1], ring[i + 1]);
+                    bounds[2] = Math.max(bounds[2], ring[i]);
+                    bounds[3] = Math.max(bounds[3], ring[i + 1]);
+                }
+                ringBounds[r] = bounds;
+                expand(bounds[0], bounds[1], bounds[2], bounds[3]);
+            }
+        }
+
+        /**
+         * Even-odd rule over all rings: holes and separate parts need no special handling
+         * A ring whose box does not cover the point contributes an even number of crossings
+         */
+        boolean contains(double x, double y) {
+            boolean inside = false;
+            for (int r = 0; r < rings.length; r++) {
+                double[] bounds = ringBounds[r];
+                if (x < bounds[0] || y < bounds[1] || x > bounds[2] || y > bounds[3]) {
+                    continue;
+                }
+                if (ringContains(rings[r], x, y)) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private static boolean ringContains(double[] ring, double x, double y) {
+            boolean inside = false;
+            int n = ring.length / 2;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                double xi = ring[2 * i];
+                double yi = ring[2 * i + 1];
+                double xj = ring[2 * j];
+                double yj = ring[2 * j + 1];
+                if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+}
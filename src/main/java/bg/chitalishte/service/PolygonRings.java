@@ -0,0 +1,116 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ring-level view of GeoJSON polygons shared by the simplifier and the TopoJSON encoder
+ * Rings are flat x, y arrays without the closing point
+ */
+final class PolygonRings {
+
+    private PolygonRings() {
+    }
+
+    record Point(double x, double y) {
+    }
+
+    private record Neighbours(Point first, Point second) {
+
+        static Neighbours of(Point a, Point b) {
+            boolean ordered = a.x() < b.x() || (a.x() == b.x() && a.y() <= b.y());
+            return ordered ? new Neighbours(a, b) : new Neighbours(b, a);
+        }
+    }
+
+    /**
+     * Polygons -> rings of a Polygon / MultiPolygon geometry, null for any other geometry
+     */
+    static List<List<double[]>> polygons(JsonNode geometry) {
+        JsonNode coordinates = geometry.path("coordinates");
+        List<List<double[]>> polygons = new ArrayList<>();
+        switch (geometry.path("type").asText()) {
+            case "Polygon" -> polygons.add(rings(coordinates));
+            case "MultiPolygon" -> coordinates.forEach(polygon -> polygons.add(rings(polygon)));
+            default -> {
+                return null;
+            }
+        }
+        return polygons;
+    }
+
+    private static List<double[]> rings(JsonNode polygon) {
+        List<double[]> rings = new ArrayList<>();
+        for (JsonNode ring : polygon) {
+            // Drop the closing point (equal to the first one)
+            int n = ring.size() > 1 && ring.get(0).equals(ring.get(ring.size() - 1)) ? ring.size() - 1 : ring.size();
+            double[] flat = new double[n * 2];
+            for (int i = 0; i < n; i++) {
+                flat[2 * i] = ring.get(i).get(0).asDouble();
+                flat[2 * i + 1] = ring.get(i).get(1).asDouble();
+            }
+            rings.add(flat);
+        }
+        return rings;
+    }
+
+    /**
+     * A vertex is a junction when it is seen with different neighbours in different rings (or positions)
+     * Boundaries shared by two polygons run between junctions
+     */
+    static Set<Point> findJunctions(List<List<List<double[]>>> geometries) {
+        Map<Point, Neighbours> seen = new HashMap<>();
+        Set<Point> junctions = new HashSet<>();
+        for (List<List<double[]>> polygons : geometries) {
+            if (polygons == null) {
+                continue;
+            }
+            for (List<double[]> polygon : polygons) {
+                for (double[] ring : polygon) {
+                    int n = ring.length / 2;
+                    for (int i = 0; i < n; i++) {
+                        Point point = point(ring, i);
+                        Neighbours neighbours = Neighbours.of(point(ring, (i + n - 1) % n), point(ring, (i + 1) % n));
+                        Neighbours previous = seen.putIfAbsent(point, neighbours);
+                        if (previous != null && !previous.equals(neighbours)) {
+                            junctions.add(point);
+                        }
+                    }
+                }
+            }
+        }
+        return junctions;
+    }
+
+    /**
+     * Index of the lowest (x, then y) vertex - a start that does not depend on ring rotation or direction
+     */
+    static int lowestPoint(double[] ring) {
+        int lowest = 0;
+        for (int i = 1; i < ring.length / 2; i++) {
+            if (isLower(ring, i, lowest)) {
+                lowest = i;
+            }
+        }
+        return lowest;
+    }
+
+    /**
+     * Vertex a before vertex b by x, then y - breaks ties the same way in either ring direction
+     */
+    static boolean isLower(double[] ring, int a, int b) {
+        double ax = ring[2 * a];
+        double bx = ring[2 * b];
+        return ax < bx || (ax == bx && ring[2 * a + 1] < ring[2 * b + 1]);
+    }
+
+    static Point point(double[] ring, int index) {
+        return new Point(ring[2 * index], ring[2 * index + 1]);
+    }
+}
@@ -0,0 +1,165 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.RegionAggregateDTO;
+import bg.chitalishte.entity.Municipality;
+import bg.chitalishte.entity.RegionLevel;
+import bg.chitalishte.mapper.RegionAggregateMapper;
+import bg.chitalishte.repository.MunicipalityRepository;
+import bg.chitalishte.repository.RegionAggregateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for rolling municipality data up to NUTS3, NUTS2, NUTS1 and national level
+ * Every group is recalculated on each run (about 40 rows) - the roll-ups also sum population and NSI
+ * totals that are not metrics, so a per-municipality change check would miss updates
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RegionAggregateService {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final RegionAggregateRepository regionAggregateRepository;
+    private final MunicipalityRepository municipalityRepository;
+    private final RegionAggregateMapper regionAggregateMapper;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO region_aggregates (
+                level, code, name, municipalities_count,
+                total_chitalishta, village_chitalishta, city_chitalishta,
+                population, population_under_15, population_over_65,
+                state_subsidy_amount, additional_positions,
+                total_revenue_thousands, total_expenses_thousands,
+                total_staff, secretaries_count, unique_employment_contracts,
+                chitalishta_per_10k_residents, state_subsidy_per_capita, calculated_at)
+            SELECT
+                :level, %1$s, %2$s, COUNT(m.id),
+                SUM(mm.total_chitalishta), SUM(mm.village_chitalishta), SUM(mm.city_chitalishta),
+                SUM(m.municipality_population), SUM(m.population_under_15_aggregate), SUM(m.population_over_65_aggregate),
+                SUM(mm.state_subsidy_amount), SUM(mm.additional_positions),
+                SUM(myd.total_revenue_thousands), SUM(myd.total_expenses_thousands),
+                SUM(mm.total_staff), SUM(mm.secretaries_count), SUM(mm.unique_employment_contracts),
+                CASE
+                    WHEN SUM(m.municipality_population) > 0
+                    THEN ROUND((SUM(mm.total_chitalishta)::NUMERIC / SUM(m.municipality_population)) * 10000, 1)
+                    ELSE NULL
+                END,
+                CASE
+                    WHEN SUM(m.municipality_population) > 0
+                    THEN ROUND(SUM(mm.state_subsidy_amount) / SUM(m.municipality_population), 2)
+                    ELSE NULL
+                END,
+                NOW()
+            FROM municipalities m
+            LEFT JOIN municipality_metrics mm ON mm.municipality_id = m.id
+            LEFT JOIN municipality_year_data myd
+                ON myd.municipality_code = m.municipality_code AND myd.year = :nsiYear
+            %3$s
+            ON CONFLICT (level, code) DO UPDATE SET
+                name = EXCLUDED.name,
+                municipalities_count = EXCLUDED.municipalities_count,
+                total_chitalishta = EXCLUDED.total_chitalishta,
+                village_chitalishta = EXCLUDED.village_chitalishta,
+                city_chitalishta = EXCLUDED.city_chitalishta,
+                population = EXCLUDED.population,
+                population_under_15 = EXCLUDED.population_under_15,
+                population_over_65 = EXCLUDED.population_over_65,
+                state_subsidy_amount = EXCLUDED.state_subsidy_amount,
+                additional_positions = EXCLUDED.additional_positions,
+                total_revenue_thousands = EXCLUDED.total_revenue_thousands,
+                total_expenses_thousands = EXCLUDED.total_expenses_thousands,
+                total_staff = EXCLUDED.total_staff,
+                secretaries_count = EXCLUDED.secretaries_count,
+                unique_employment_contracts = EXCLUDED.unique_employment_contracts,
+                chitalishta_per_10k_residents = EXCLUDED.chitalishta_per_10k_residents,
+                state_subsidy_per_capita = EXCLUDED.state_subsidy_per_capita,
+                calculated_at = EXCLUDED.calculated_at
+            """;
+
+    /**
+     * Recalculate the aggregates of every group and delete groups that no longer have municipalities
+     *
+     * @param nsiYear year of the NSI financial data (revenue/expense totals)
+     */
+    @Transactional
+    public void recalculateAll(int nsiYear) {
+        List<Municipality> municipalities = municipalityRepository.findAll();
+
+        for (RegionLevel level : RegionLevel.values()) {
+            Set<String> codes = municipalities.stream()
+                    .map(level::codeOf)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+
+            int deleted = deleteOtherGroups(level, codes);
+            int updated = codes.isEmpty() ? 0 : upsertLevel(level, codes, nsiYear);
+            log.info("Recalculated {} {} aggregates, deleted {} stale groups", updated, level, deleted);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<RegionAggregateDTO> getAggregates(RegionLevel level) {
+        log.info("Fetching {} region aggregates", level);
+
+        return regionAggregateRepository.findByLevelOrderByCode(level).stream()
+                .map(regionAggregateMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RegionAggregateDTO> getAggregate(RegionLevel level, String code) {
+        log.info("Fetching {} region aggregate: {}", level, code);
+
+        return regionAggregateRepository.findByLevelAndCode(level, code)
+                .map(regionAggregateMapper::toDTO);
+    }
+
+    private int deleteOtherGroups(RegionLevel level, Set<String> codes) {
+        if (codes.isEmpty()) {
+            return namedJdbcTemplate.update("DELETE FROM region_aggregates WHERE level = :level",
+                    new MapSqlParameterSource("level", level.name()));
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("level", level.name())
+                .addValue("codes", codes);
+        return namedJdbcTemplate.update(
+                "DELETE FROM region_aggregates WHERE level = :level AND code NOT IN (:codes)", params);
+    }
+
+    private int upsertLevel(RegionLevel level, Set<String> codes, int nsiYear) {
+        String codeExpression;
+        String nameExpression;
+        String filter;
+
+        if (level == RegionLevel.NATIONAL) {
+            codeExpression = "'" + RegionLevel.NATIONAL_CODE + "'";
+            nameExpression = "'България'";
+            filter = "";
+        } else {
+            String column = "m." + level.getColumn();
+            codeExpression = column;
+            nameExpression = level == RegionLevel.NUTS3 ? "MAX(m.district)" : "NULL";
+            filter = "WHERE " + column + " IN (:codes) GROUP BY " + column;
+        }
+
+        String sql = String.format(UPSERT_SQL, codeExpression, nameExpression, filter);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("level", level.name())
+                .addValue("nsiYear", nsiYear)
+                .addValue("codes", codes);
+
+        return namedJdbcTemplate.update(sql, params);
+    }
+}
@@ -0,0 +1,120 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.dto.GeoPointDTO;
+import bg.chitalishte.dto.ReverseGeocodeDTO;
+import bg.chitalishte.event.GeoJsonLayersReloadedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reverse geocoding: point -> settlement (EKATTE), municipality (NUTS4) and province (NUTS3)
+ * Polygons of the three layers are held in spatial indexes built once from GeoJsonLayerStore
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReverseGeocodingService {
+
+    private static final int MAX_BATCH_POINTS = 1000;
+    private static final Set<String> INDEXED_LAYERS = Set.of("settlements", "municipalities", "provinces");
+
+    private final GeoJsonLayerStore layerStore;
+    private final ObjectMapper objectMapper;
+
+    private volatile Indexes indexes = new Indexes(PolygonIndex.empty(), PolygonIndex.empty(), PolygonIndex.empty());
+
+    private record Indexes(PolygonIndex settlements, PolygonIndex municipalities, PolygonIndex provinces) {
+    }
+
+    @PostConstruct
+    public void init() {
+        long start = System.currentTimeMillis();
+        Indexes built = new Indexes(
+                buildIndex("settlements", "ekatte"),
+                buildIndex("municipalities", "nuts4"),
+                buildIndex("provinces", "nuts3"));
+        indexes = built;
+        log.info("Built reverse geocoding indexes: settlements={}, municipalities={}, provinces={} in {} ms",
+                built.settlements().size(), built.municipalities().size(), built.provinces().size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Rebuild the indexes off the request path and swap them in when an indexed layer was reloaded
+     */
+    @Order(0)
+    @EventListener
+    public void onLayersReloaded(GeoJsonLayersReloadedEvent event) {
+        if (event.layers().stream().anyMatch(INDEXED_LAYERS::contains)) {
+            init();
+        }
+    }
+
+    /**
+     * Resolve a point to the administrative units containing it
+     */
+    public ReverseGeocodeDTO reverse(double lat, double lon) {
+        validate(lat, lon);
+        Indexes current = indexes;
+        return ReverseGeocodeDTO.builder()
+                .lat(lat)
+                .lon(lon)
+                .ekatte(current.settlements().find(lon, lat).orElse(null))
+                .municipalityCode(current.municipalities().find(lon, lat).orElse(null))
+                .provinceCode(current.provinces().find(lon, lat).orElse(null))
+                .build();
+    }
+
+    /**
+     * Resolve several points, results in request order
+     */
+    public List<ReverseGeocodeDTO> reverseBatch(List<GeoPointDTO> points) {
+        if (points == null || points.isEmpty()) {
+            throw new IllegalArgumentException("At least one point is required");
+        }
+        if (points.size() > MAX_BATCH_POINTS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_POINTS + " points are allowed");
+        }
+        for (GeoPointDTO point : points) {
+            if (point == null || point.getLat() == null || point.getLon() == null) {
+                throw new IllegalArgumentException("Every point needs lat and lon");
+            }
+        }
+
+        return points.stream()
+                .map(point -> reverse(point.getLat(), point.getLon()))
+                .collect(Collectors.toList());
+    }
+
+    private void validate(double lat, double lon) {
+        if (!(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)) {
+            throw new IllegalArgumentException("Invalid coordinates: lat=" + lat + ", lon=" + lon);
+        }
+    }
+
+    private PolygonIndex buildIndex(String layerName, String codeProperty) {
+        return layerStore.get(layerName)
+                .map(layer -> {
+                    try {
+                        return PolygonIndex.fromFeatures(objectMapper.readTree(layer.getFull().raw()).path("features"), codeProperty);
+                    } catch (IOException e) {
+                        log.error("Error building spatial index for layer: {}", layerName, e);
+                        return PolygonIndex.empty();
+                    }
+                })
+                .orElseGet(() -> {
+                    log.warn("GeoJSON layer not found, reverse geocoding without it: {}", layerName);
+                    return PolygonIndex.empty();
+                });
+    }
+}
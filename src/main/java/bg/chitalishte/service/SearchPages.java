@@ -0,0 +1,51 @@
+package bg.chitalishte.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Paging of capped fuzzy search results
+ * At most MAX_RESULTS matches are reachable; total is the capped number of matches
+ */
+public final class SearchPages {
+
+    public static final int MAX_RESULTS = 100;
+
+    private SearchPages() {
+    }
+
+    @FunctionalInterface
+    public interface Search<T> {
+        List<T> search(String query, int offset, int limit);
+    }
+
+    @FunctionalInterface
+    public interface Count {
+        int count(String query, int cap);
+    }
+
+    /**
+     * One page of the capped results; a blank query or a page past the cap is empty without querying
+     */
+    public static <T> Page<T> search(String query, int page, int size, Search<T> search, Count count) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page must be >= 0 and size must be >= 1");
+        }
+
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_RESULTS));
+        String q = query != null ? query.trim() : "";
+        if (q.isEmpty() || pageable.getOffset() >= MAX_RESULTS) {
+            return Page.empty(pageable);
+        }
+
+        int limit = (int) Math.min(pageable.getPageSize(), MAX_RESULTS - pageable.getOffset());
+        List<T> content = search.search(q, (int) pageable.getOffset(), limit);
+        int total = count.count(q, MAX_RESULTS);
+
+        return new PageImpl<>(content, pageable, total);
+    }
+}
@@ -0,0 +1,252 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TopoJSON encoding of a GeoJSON FeatureCollection of polygons and lines
+ * Rings are cut into arcs at junctions and every arc is stored once - a border shared by two
+ * polygons is referenced by both (the second time reversed, as ~index). Lines are cut at the same
+ * junctions and share arcs the same way. Arc coordinates are quantized to an integer grid and delta-encoded
+ */
+public final class TopoJsonEncoder {
+
+    private static final int QUANTIZATION = 100_000;
+
+    private TopoJsonEncoder() {
+    }
+
+    /**
+     * Topology with one GeometryCollection object named objectName; features that are neither polygons nor
+     * lines (points, missing geometry) get a null geometry type
+     */
+    public static ObjectNode encode(JsonNode collection, String objectName, ObjectMapper objectMapper) {
+        JsonNode features = collection.path("features");
+
+        List<List<List<double[]>>> geometries = new ArrayList<>();
+        for (JsonNode feature : features) {
+            geometries.add(PolygonRings.polygons(feature.path("geometry")));
+        }
+        Set<PolygonRings.Point> junctions = PolygonRings.findJunctions(geometries);
+
+        Map<List<PolygonRings.Point>, Integer> arcIndex = new HashMap<>();
+        List<List<PolygonRings.Point>> arcs = new ArrayList<>();
+
+        ArrayNode geometryNodes = objectMapper.createArrayNode();
+        int i = 0;
+        for (JsonNode feature : features) {
+            List<List<double[]>> polygons = geometries.get(i++);
+            ObjectNode geometry = geometryNodes.addObject();
+
+            if (polygons == null) {
+                List<double[]> lines = lines(feature.path("geometry"));
+                if (lines == null) {
+                    geometry.putNull("type");
+                } else {
+                    ArrayNode lineNodes = objectMapper.createArrayNode();
+                    for (double[] line : lines) {
+                        ArrayNode lineArcs = lineNodes.addArray();
+                        for (List<PolygonRings.Point> arc : cutLine(line, junctions)) {
+                            lineArcs.add(arcId(arc, arcIndex, arcs));
+                        }
+                    }
+                    String type = feature.path("geometry").path("type").asText();
+                    geometry.put("type", type);
+                    geometry.set("arcs", "LineString".equals(type) ? lineNodes.get(0) : lineNodes);
+                }
+            } else {
+                ArrayNode polygonNodes = objectMapper.createArrayNode();
+                for (List<double[]> polygon : polygons) {
+                    ArrayNode ringNodes = polygonNodes.addArray();
+                    for (double[] ring : polygon) {
+                        ArrayNode ringArcs = ringNodes.addArray();
+                        for (List<PolygonRings.Point> arc : cut(ring, junctions)) {
+                            ringArcs.add(arcId(arc, arcIndex, arcs));
+                        }
+                    }
+                }
+                String type = feature.path("geometry").path("type").asText();
+                geometry.put("type", type);
+                geometry.set("arcs", "Polygon".equals(type) ? polygonNodes.get(0) : polygonNodes);
+            }
+
+            JsonNode properties = feature.get("properties");
+            if (properties != null && properties.isObject() && !properties.isEmpty()) {
+                geometry.set("properties", properties.deepCopy());
+            }
+        }
+
+        return topology(objectName, geometryNodes, arcs, objectMapper);
+    }
+
+    /**
+     * Split a ring into arcs that start and end at junctions; a ring without junctions is one closed arc
+     * starting at its lowest vertex, so the same ring used by two polygons yields the same arc
+     */
+    private static List<List<PolygonRings.Point>> cut(double[] ring, Set<PolygonRings.Point> junctions) {
+        int n = ring.length / 2;
+        int start = -1;
+        for (int i = 0; i < n && start < 0; i++) {
+            if (junctions.contains(PolygonRings.point(ring, i))) {
+                start = i;
+            }
+        }
+
+        List<List<PolygonRings.Point>> arcs = new ArrayList<>();
+        if (start < 0) {
+            start = PolygonRings.lowestPoint(ring);
+            List<PolygonRings.Point> arc = new ArrayList<>(n + 1);
+            for (int k = 0; k <= n; k++) {
+                arc.add(PolygonRings.point(ring, (start + k) % n));
+            }
+            arcs.add(arc);
+            return arcs;
+        }
+
+        List<PolygonRings.Point> arc = new ArrayList<>();
+        for (int k = 0; k <= n; k++) {
+            PolygonRings.Point point = PolygonRings.point(ring, (start + k) % n);
+            arc.add(point);
+            if (k > 0 && junctions.contains(point)) {
+                arcs.add(arc);
+                arc = new ArrayList<>();
+                arc.add(point);
+            }
+        }
+        return arcs;
+    }
+
+    /**
+     * Flat coordinates of each line of a LineString or MultiLineString, null for other geometry types
+     */
+    private static List<double[]> lines(JsonNode geometry) {
+        JsonNode coordinates = geometry.path("coordinates");
+        List<JsonNode> lineNodes = new ArrayList<>();
+        switch (geometry.path("type").asText()) {
+            case "LineString" -> lineNodes.add(coordinates);
+            case "MultiLineString" -> coordinates.forEach(lineNodes::add);
+            default -> {
+                return null;
+            }
+        }
+
+        List<double[]> lines = new ArrayList<>();
+        for (JsonNode line : lineNodes) {
+            double[] flat = new double[line.size() * 2];
+            for (int i = 0; i < line.size(); i++) {
+                flat[2 * i] = line.get(i).get(0).asDouble();
+                flat[2 * i + 1] = line.get(i).get(1).asDouble();
+            }
+            lines.add(flat);
+        }
+        return lines;
+    }
+
+    /**
+     * Split a line into arcs at interior junctions; its ends always end an arc
+     */
+    private static List<List<PolygonRings.Point>> cutLine(double[] line, Set<PolygonRings.Point> junctions) {
+        int n = line.length / 2;
+        List<List<PolygonRings.Point>> arcs = new ArrayList<>();
+        if (n < 2) {
+            // Not a valid line, an arc needs two positions
+            return arcs;
+        }
+
+        List<PolygonRings.Point> arc = new ArrayList<>();
+        for (int k = 0; k < n; k++) {
+            PolygonRings.Point point = PolygonRings.point(line, k);
+            arc.add(point);
+            if (k > 0 && k < n - 1 && junctions.contains(point)) {
+                arcs.add(arc);
+                arc = new ArrayList<>();
+                arc.add(point);
+            }
+        }
+        arcs.add(arc);
+        return arcs;
+    }
+
+    private static int arcId(List<PolygonRings.Point> arc, Map<List<PolygonRings.Point>, Integer> arcIndex,
+                             List<List<PolygonRings.Point>> arcs) {
+        Integer id = arcIndex.get(arc);
+        if (id != null) {
+            return id;
+        }
+
+        List<PolygonRings.Point> reversed = new ArrayList<>(arc);
+        Collections.reverse(reversed);
+        id = arcIndex.get(reversed);
+        if (id != null) {
+            return ~id;
+        }
+
+        arcIndex.put(arc, arcs.size());
+        arcs.add(arc);
+        return arcs.size() - 1;
+    }
+
+    private static ObjectNode topology(String objectName, ArrayNode geometryNodes,
+                                       List<List<PolygonRings.Point>> arcs, ObjectMapper objectMapper) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (List<PolygonRings.Point> arc : arcs) {
+            for (PolygonRings.Point point : arc) {
+                minX = Math.min(minX, point.x());
+                minY = Math.min(minY, point.y());
+                maxX = Math.max(maxX, point.x());
+                maxY = Math.max(maxY, point.y());
+            }
+        }
+        if (arcs.isEmpty()) {
+            minX = minY = maxX = maxY = 0;
+        }
+        double kx = maxX > minX ? (maxX - minX) / (QUANTIZATION - 1) : 1;
+        double ky = maxY > minY ? (maxY - minY) / (QUANTIZATION - 1) : 1;
+
+        ObjectNode topology = objectMapper.createObjectNode();
+        topology.put("type", "Topology");
+        topology.putArray("bbox").add(minX).add(minY).add(maxX).add(maxY);
+
+        ObjectNode transform = topology.putObject("transform");
+        transform.putArray("scale").add(kx).add(ky);
+        transform.putArray("translate").add(minX).add(minY);
+
+        ObjectNode object = topology.putObject("objects").putObject(objectName);
+        object.put("type", "GeometryCollection");
+        object.set("geometries", geometryNodes);
+
+        ArrayNode arcNodes = topology.putArray("arcs");
+        for (List<PolygonRings.Point> arc : arcs) {
+            ArrayNode arcNode = arcNodes.addArray();
+            long previousX = 0;
+            long previousY = 0;
+            int written = 0;
+            for (int p = 0; p < arc.size(); p++) {
+                long x = Math.round((arc.get(p).x() - minX) / kx);
+                long y = Math.round((arc.get(p).y() - minY) / ky);
+                // Points that fall on the same grid cell are dropped, but an arc keeps both ends
+                boolean last = p == arc.size() - 1;
+                if (written > 0 && x == previousX && y == previousY && !(last && written == 1)) {
+                    continue;
+                }
+                arcNode.addArray().add(x - previousX).add(y - previousY);
+                previousX = x;
+                previousY = y;
+                written++;
+            }
+        }
+        return topology;
+    }
+}
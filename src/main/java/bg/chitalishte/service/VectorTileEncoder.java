@@ -0,0 +1,430 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapbox Vector Tile (MVT 2.1) encoding of polygon features
+ * Features are projected to Web Mercator once (TileFeature); a tile clips them to its extent
+ * plus a small buffer and writes a single-layer protobuf, so no protobuf library is needed
+ */
+public final class VectorTileEncoder {
+
+    public static final int EXTENT = 4096;
+
+    // Clip buffer in tile units, hides seams between neighbouring tiles
+    private static final int BUFFER = 64;
+
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private VectorTileEncoder() {
+    }
+
+    /**
+     * Polygon feature in normalized Web Mercator coordinates (0..1, y down)
+     * polygons -> rings (first one exterior) -> flat x, y pairs without the closing point
+     */
+    public record TileFeature(long id, Map<String, Object> properties, List<List<double[]>> polygons,
+                              double minX, double minY, double maxX, double maxY) {
+    }
+
+    /**
+     * Project GeoJSON Polygon / MultiPolygon features; other geometry types are skipped
+     */
+    public static List<TileFeature> prepare(JsonNode features) {
+        List<TileFeature> prepared = new ArrayList<>();
+        long id = 0;
+        for (JsonNode feature : features) {
+            id++;
+            JsonNode geometry = feature.path("geometry");
+            JsonNode coordinates = geometry.path("coordinates");
+            List<List<double[]>> polygons = new ArrayList<>();
+            switch (geometry.path("type").asText()) {
+                case "Polygon" -> polygons.add(projectRings(coordinates));
+                case "MultiPolygon" -> coordinates.forEach(polygon -> polygons.add(projectRings(polygon)));
+                default -> {
+                    continue;
+                }
+            }
+
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (List<double[]> polygon : polygons) {
+                for (double[] ring : polygon) {
+                    for (int i = 0; i < ring.length; i += 2) {
+                        minX = Math.min(minX, ring[i]);
+                        maxX = Math.max(maxX, ring[i]);
+                        minY = Math.min(minY, ring[i + 1]);
+                        maxY = Math.max(maxY, ring[i + 1]);
+                    }
+                }
+            }
+            if (minX <= maxX) {
+                prepared.add(new TileFeature(id, properties(feature.path("properties")), polygons, minX, minY, maxX, maxY));
+            }
+        }
+        return prepared;
+    }
+
+    /**
+     * Encode the features intersecting tile z/x/y as one MVT layer; empty array when none do
+     */
+    public static byte[] encode(String layerName, List<TileFeature> features, int z, int x, int y) {
+        double scale = 1L << z;
+        double margin = (double) BUFFER / EXTENT / scale;
+        double tileMinX = x / scale - margin;
+        double tileMinY = y / scale - margin;
+        double tileMaxX = (x + 1) / scale + margin;
+        double tileMaxY = (y + 1) / scale + margin;
+
+        LayerWriter layer = new LayerWriter(layerName);
+        for (TileFeature feature : features) {
+            if (feature.maxX() < tileMinX || feature.minX() > tileMaxX
+                    || feature.maxY() < tileMinY || feature.minY() > tileMaxY) {
+                continue;
+            }
+            int[] geometry = encodeGeometry(feature, scale, x, y);
+            if (geometry.length > 0) {
+                layer.addFeature(feature.id(), feature.properties(), geometry);
+            }
+        }
+        return layer.isEmpty() ? new byte[0] : layer.toTile();
+    }
+
+    private static List<double[]> projectRings(JsonNode polygon) {
+        List<double[]> rings = new ArrayList<>();
+        for (JsonNode ring : polygon) {
+            int n = ring.size() > 1 && ring.get(0).equals(ring.get(ring.size() - 1)) ? ring.size() - 1 : ring.size();
+            double[] projected = new double[n * 2];
+            for (int i = 0; i < n; i++) {
+                double lon = ring.get(i).get(0).asDouble();
+                double lat = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, ring.get(i).get(1).asDouble()));
+                double sin = Math.sin(Math.toRadians(lat));
+                projected[2 * i] = (lon + 180) / 360;
+                projected[2 * i + 1] = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+            }
+            rings.add(projected);
+        }
+        return rings;
+    }
+
+    private static Map<String, Object> properties(JsonNode properties) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        properties.fields().forEachRemaining(entry -> {
+            JsonNode value = entry.getValue();
+            if (value.isTextual()) {
+                values.put(entry.getKey(), value.asText());
+            } else if (value.isIntegralNumber()) {
+                values.put(entry.getKey(), value.asLong());
+            } else if (value.isNumber()) {
+                values.put(entry.getKey(), value.asDouble());
+            } else if (value.isBoolean()) {
+                values.put(entry.getKey(), value.asBoolean());
+            }
+            // Arrays, objects and nulls have no MVT value type
+        });
+        return values;
+    }
+
+    // ========== GEOMETRY ==========
+
+    private static int[] encodeGeometry(TileFeature feature, double scale, int x, int y) {
+        IntList commands = new IntList();
+        int[] cursor = {0, 0};
+        for (List<double[]> polygon : feature.polygons()) {
+            for (int r = 0; r < polygon.size(); r++) {
+                int[] ring = toTileRing(polygon.get(r), scale, x, y);
+                if (ring.length < 6) {
+                    if (r == 0) {
+                        break; // exterior clipped away - skip the polygon with its holes
+                    }
+                    continue;
+                }
+
+                // Exterior rings have positive area in tile coordinates (clockwise, y down), holes negative
+                long area = area(ring);
+                if (area == 0) {
+                    if (r == 0) {
+                        break;
+                    }
+                    continue;
+                }
+                if ((r == 0) != (area > 0)) {
+                    reverse(ring);
+                }
+
+                int points = ring.length / 2;
+                commands.add(command(1, 1));
+                moveCursor(commands, cursor, ring[0], ring[1]);
+                commands.add(command(2, points - 1));
+                for (int i = 1; i < points; i++) {
+                    moveCursor(commands, cursor, ring[2 * i], ring[2 * i + 1]);
+                }
+                commands.add(command(7, 1));
+            }
+        }
+        return commands.toArray();
+    }
+
+    /**
+     * Ring clipped to the buffered tile (Sutherland-Hodgman), rounded to the integer grid,
+     * consecutive duplicates removed
+     */
+    private static int[] toTileRing(double[] ring, double scale, int x, int y) {
+        int n = ring.length / 2;
+        double[] points = new double[n * 2];
+        for (int i = 0; i < n; i++) {
+            points[2 * i] = (ring[2 * i] * scale - x) * EXTENT;
+            points[2 * i + 1] = (ring[2 * i + 1] * scale - y) * EXTENT;
+        }
+
+        double min = -BUFFER;
+        double max = EXTENT + BUFFER;
+        points = clip(points, 0, min, false);
+        points = clip(points, 0, max, true);
+        points = clip(points, 1, min, false);
+        points = clip(points, 1, max, true);
+
+        IntList rounded = new IntList();
+        for (int i = 0; i < points.length; i += 2) {
+            int px = (int) Math.round(points[i]);
+            int py = (int) Math.round(points[i + 1]);
+            int size = rounded.size();
+            if (size >= 2 && rounded.get(size - 2) == px && rounded.get(size - 1) == py) {
+                continue;
+            }
+            rounded.add(px);
+            rounded.add(py);
+        }
+        int size = rounded.size();
+        if (size >= 4 && rounded.get(0) == rounded.get(size - 2) && rounded.get(1) == rounded.get(size - 1)) {
+            rounded.truncate(size - 2);
+        }
+        return rounded.toArray();
+    }
+
+    /**
+     * Clip a closed ring against one edge: axis 0 = x, 1 = y; keeps the side below (upper) or above the bound
+     */
+    private static double[] clip(double[] points, int axis, double bound, boolean upper) {
+        int n = points.length / 2;
+        if (n == 0) {
+            return points;
+        }
+        List<Double> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int j = (i + n - 1) % n;
+            double[] current = {points[2 * i], points[2 * i + 1]};
+            double[] previous = {points[2 * j], points[2 * j + 1]};
+            boolean currentInside = upper ? current[axis] <= bound : current[axis] >= bound;
+            boolean previousInside = upper ? previous[axis] <= bound : previous[axis] >= bound;
+            if (currentInside != previousInside) {
+                double t = (bound - previous[axis]) / (current[axis] - previous[axis]);
+                out.add(previous[0] + t * (current[0] - previous[0]));
+                out.add(previous[1] + t * (current[1] - previous[1]));
+            }
+            if (currentInside) {
+                out.add(current[0]);
+                out.add(current[1]);
+            }
+        }
+        double[] clipped = new double[out.size()];
+        for (int i = 0; i < clipped.length; i++) {
+            clipped[i] = out.get(i);
+        }
+        return clipped;
+    }
+
+    private static long area(int[] ring) {
+        long area = 0;
+        int n = ring.length / 2;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            area += (long) ring[2 * j] * ring[2 * i + 1] - (long) ring[2 * i] * ring[2 * j + 1];
+        }
+        return area;
+    }
+
+    private static void reverse(int[] ring) {
+        int n = ring.length / 2;
+        for (int i = 0; i < n / 2; i++) {
+            int j = n - 1 - i;
+            int tx = ring[2 * i];
+            int ty = ring[2 * i + 1];
+            ring[2 * i] = ring[2 * j];
+            ring[2 * i + 1] = ring[2 * j + 1];
+            ring[2 * j] = tx;
+            ring[2 * j + 1] = ty;
+        }
+    }
+
+    private static int command(int id, int count) {
+        return (id & 0x7) | (count << 3);
+    }
+
+    private static void moveCursor(IntList commands, int[] cursor, int x, int y) {
+        commands.add(zigZag(x - cursor[0]));
+        commands.add(zigZag(y - cursor[1]));
+        cursor[0] = x;
+        cursor[1] = y;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    // ========== PROTOBUF ==========
+
+    /**
+     * One MVT layer: features plus the deduplicated keys / values their tags point to
+     */
+    private static final class LayerWriter {
+        private final String name;
+        private final ProtoWriter features = new ProtoWriter();
+        private final Map<String, Integer> keys = new LinkedHashMap<>();
+        private final Map<Object, Integer> values = new LinkedHashMap<>();
+        private int featureCount;
+
+        LayerWriter(String name) {
+            this.name = name;
+        }
+
+        boolean isEmpty() {
+            return featureCount == 0;
+        }
+
+        void addFeature(long id, Map<String, Object> properties, int[] geometry) {
+            IntList tags = new IntList();
+            properties.forEach((key, value) -> {
+                tags.add(keys.computeIfAbsent(key, k -> keys.size()));
+                tags.add(values.computeIfAbsent(value, v -> values.size()));
+            });
+
+            ProtoWriter feature = new ProtoWriter();
+            feature.writeVarintField(1, id);
+            feature.writePackedField(2, tags.toArray());
+            feature.writeVarintField(3, 3); // POLYGON
+            feature.writePackedField(4, geometry);
+            features.writeBytesField(2, feature.toByteArray());
+            featureCount++;
+        }
+
+        byte[] toTile() {
+            ProtoWriter layer = new ProtoWriter();
+            layer.writeVarintField(15, 2);
+            layer.writeBytesField(1, name.getBytes(StandardCharsets.UTF_8));
+            layer.writeRaw(features.toByteArray());
+            for (String key : keys.keySet()) {
+                layer.writeBytesField(3, key.getBytes(StandardCharsets.UTF_8));
+            }
+            for (Object value : values.keySet()) {
+                layer.writeBytesField(4, encodeValue(value));
+            }
+            layer.writeVarintField(5, EXTENT);
+
+            ProtoWriter tile = new ProtoWriter();
+            tile.writeBytesField(3, layer.toByteArray());
+            return tile.toByteArray();
+        }
+
+        private static byte[] encodeValue(Object value) {
+            ProtoWriter writer = new ProtoWriter();
+            if (value instanceof String text) {
+                writer.writeBytesField(1, text.getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof Double number) {
+                writer.writeTag(3, 1);
+                writer.writeFixed64(Double.doubleToLongBits(number));
+            } else if (value instanceof Long number) {
+                writer.writeVarintField(6, (number << 1) ^ (number >> 63));
+            } else if (value instanceof Boolean flag) {
+                writer.writeVarintField(7, flag ? 1 : 0);
+            }
+            return writer.toByteArray();
+        }
+    }
+
+    private static final class ProtoWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeTag(int field, int wireType) {
+            writeVarint(((long) field << 3) | wireType);
+        }
+
+        void writeVarintField(int field, long value) {
+            writeTag(field, 0);
+            writeVarint(value);
+        }
+
+        void writeBytesField(int field, byte[] bytes) {
+            writeTag(field, 2);
+            writeVarint(bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        void writePackedField(int field, int[] values) {
+            ProtoWriter packed = new ProtoWriter();
+            for (int value : values) {
+                packed.writeVarint(value & 0xFFFFFFFFL);
+            }
+            writeBytesField(field, packed.toByteArray());
+        }
+
+        void writeFixed64(long value) {
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (value >>> (8 * i)) & 0xFF);
+            }
+        }
+
+        void writeRaw(byte[] bytes) {
+            out.writeBytes(bytes);
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void truncate(int newSize) {
+            size = newSize;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package bg.chitalishte.service;
+
+import bg.chitalishte.event.GeoJsonLayersReloadedEvent;
+import bg.chitalishte.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vector tiles (MVT) of the GeoJSON layers: /tiles/{layer}/{z}/{x}/{y}.mvt
+ * Tiles up to PRECOMPUTED_MAX_ZOOM are built once the layers' simplified variants are ready (and again after
+ * every reload, both signalled by GeoJsonLayersReloadedEvent); deeper tiles are encoded on demand
+ * from the in-memory layer (simplified variant for the zoom) and kept in a size-bounded LRU cache
+ * Cached tiles are tied to the layer instance they were built from, so a reloaded layer is never
+ * answered with tiles of its previous version
+ */
+@Slf4j
+@Service
+public class VectorTileService {
+
+    private static final int MAX_ZOOM = 18;
+    private static final int PRECOMPUTED_MAX_ZOOM = 8;
+
+    private final GeoJsonLayerStore layerStore;
+    private final ObjectMapper objectMapper;
+    private final Cache<TileKey, byte[]> tileCache;
+
+    // Projected features per layer variant, prepared on first use
+    private final Map<GeoJsonLayer.Encoded, List<VectorTileEncoder.TileFeature>> prepared = new ConcurrentHashMap<>();
+
+    // Null until the first precompute completes
+    private volatile Precomputed precomputed;
+
+    /**
+     * On-demand tile of a layer variant (variants compare by identity)
+     */
+    private record TileKey(GeoJsonLayer.Encoded variant, int z, int x, int y) {
+    }
+
+    /**
+     * Low-zoom tiles by "layer/z/x/y" and the layers they were built from
+     */
+    private record Precomputed(Map<String, GeoJsonLayer> layers, Map<String, byte[]> tiles) {
+    }
+
+    public VectorTileService(GeoJsonLayerStore layerStore, ObjectMapper objectMapper,
+                             @Value("${geocoding.tiles.cache-max-bytes:67108864}") long cacheMaxBytes) {
+        this.layerStore = layerStore;
+        this.objectMapper = objectMapper;
+        this.tileCache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((TileKey key, byte[] tile) -> 32 + tile.length)
+                .build();
+    }
+
+    /**
+     * Forget tiles and prepared features of replaced layers, then precompute the low zooms again
+     * Until that completes, low-zoom tiles of reloaded layers are encoded on demand
+     */
+    @Order(0)
+    @EventListener
+    public void onLayersReloaded(GeoJsonLayersReloadedEvent event) {
+        Set<GeoJsonLayer.Encoded> variants = layerStore.getVariants();
+        prepared.keySet().retainAll(variants);
+        tileCache.asMap().keySet().removeIf(key -> !variants.contains(key.variant()));
+        precompute();
+    }
+
+    /**
+     * Encode every low-zoom tile that intersects a layer
+     * Tiles that are not in the result are empty, so low zooms never encode on request
+     */
+    public synchronized void precompute() {
+        long start = System.currentTimeMillis();
+        Map<String, GeoJsonLayer> layers = layerStore.getAll();
+        Map<String, byte[]> tiles = new HashMap<>();
+        long bytes = 0;
+
+        for (GeoJsonLayer layer : layers.values()) {
+            for (int z = 0; z <= PRECOMPUTED_MAX_ZOOM; z++) {
+                List<VectorTileEncoder.TileFeature> features = features(layer, z);
+                int[] range = tileRange(features, z);
+                for (int x = range[0]; x <= range[2]; x++) {
+                    for (int y = range[1]; y <= range[3]; y++) {
+                        byte[] tile = VectorTileEncoder.encode(layer.getName(), features, z, x, y);
+                        if (tile.length > 0) {
+                            tiles.put(key(layer.getName(), z, x, y), tile);
+                            bytes += tile.length;
+                        }
+                    }
+                }
+            }
+        }
+
+        precomputed = new Precomputed(layers, Map.copyOf(tiles));
+        log.info("Precomputed {} vector tiles up to zoom {} ({} bytes) in {} ms",
+                tiles.size(), PRECOMPUTED_MAX_ZOOM, bytes, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * MVT bytes of a tile, empty array when no feature intersects it
+     */
+    public byte[] getTile(String layerName, int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM + ": " + z);
+        }
+        if (x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("Tile out of range: " + z + "/" + x + "/" + y);
+        }
+
+        GeoJsonLayer layer = layerStore.get(layerName)
+                .orElseThrow(() -> new ResourceNotFoundException("Layer", layerName));
+
+        Precomputed lowZoomTiles = precomputed;
+        if (z <= PRECOMPUTED_MAX_ZOOM && lowZoomTiles != null && lowZoomTiles.layers().get(layerName) == layer) {
+            return lowZoomTiles.tiles().getOrDefault(key(layerName, z, x, y), new byte[0]);
+        }
+        return tileCache.get(new TileKey(layer.resolve(z, null), z, x, y),
+                key -> VectorTileEncoder.encode(layerName, features(layer, z), z, x, y));
+    }
+
+    private List<VectorTileEncoder.TileFeature> features(GeoJsonLayer layer, int z) {
+        return prepared.computeIfAbsent(layer.resolve(z, null), variant -> {
+            try {
+                return VectorTileEncoder.prepare(objectMapper.readTree(variant.raw()).path("features"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * minX, minY, maxX, maxY of the tiles covering the features at zoom z
+     */
+    private int[] tileRange(List<VectorTileEncoder.TileFeature> features, int z) {
+        if (features.isEmpty()) {
+            return new int[]{0, 0, -1, -1};
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (VectorTileEncoder.TileFeature feature : features) {
+            minX = Math.min(minX, feature.minX());
+            minY = Math.min(minY, feature.minY());
+            maxX = Math.max(maxX, feature.maxX());
+            maxY = Math.max(maxY, feature.maxY());
+        }
+        int last = (1 << z) - 1;
+        return new int[]{
+                Math.max(0, (int) Math.floor(minX * (1 << z))),
+                Math.max(0, (int) Math.floor(minY * (1 << z))),
+                Math.min(last, (int) Math.floor(maxX * (1 << z))),
+                Math.min(last, (int) Math.floor(maxY * (1 << z)))};
+    }
+
+    private static String key(String layerName, int z, int x, int y) {
+        return layerName + "/" + z + "/" + x + "/" + y;
+    }
+}
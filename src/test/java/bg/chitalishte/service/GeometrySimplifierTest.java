@@ -0,0 +1,87 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeometrySimplifierTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Two polygons sharing a border from (1, 0) to (1, 1): small wiggles around x = 1 and one large bend to x = 1.2
+    // West runs up the border, east runs down it
+    private static final String SHARED_BORDER = """
+            {"type": "FeatureCollection", "features": [
+              {"type": "Feature", "properties": {"code": "W"},
+               "geometry": {"type": "Polygon", "coordinates": [[
+                 [0, 0], [1, 0], [1.001, 0.1], [0.999, 0.2], [1.001, 0.3], [1.2, 0.5],
+                 [0.999, 0.7], [1.001, 0.8], [1, 1], [0, 1], [0, 0]]]}},
+              {"type": "Feature", "properties": {"code": "E"},
+               "geometry": {"type": "Polygon", "coordinates": [[
+                 [1, 0], [2, 0], [2, 1], [1, 1], [1.001, 0.8], [0.999, 0.7], [1.2, 0.5],
+                 [1.001, 0.3], [0.999, 0.2], [1.001, 0.1], [1, 0]]]}}]}
+            """;
+
+    @Test
+    void sharedBorderIsSimplifiedIdenticallyOnBothSides() throws Exception {
+        JsonNode simplified = GeometrySimplifier.simplify(objectMapper.readTree(SHARED_BORDER), 0.01, 6, objectMapper);
+
+        JsonNode features = simplified.path("features");
+        Set<String> west = borderPoints(features.get(0));
+        Set<String> east = borderPoints(features.get(1));
+
+        // The wiggles at 0.1, 0.2 and 0.8 are within tolerance; the bend and the points framing it are kept
+        assertEquals(Set.of("1.0,0.0", "1.001,0.3", "1.2,0.5", "0.999,0.7", "1.0,1.0"), west);
+        assertEquals(west, east);
+    }
+
+    @Test
+    void equalDistanceTieIsBrokenTheSameWayInBothDirections() throws Exception {
+        // Bumps at y = 0.25 and y = 0.75 are equally far from the chord; only one survives the tolerance
+        String bumps = """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "properties": {"code": "W"},
+                   "geometry": {"type": "Polygon", "coordinates": [[
+                     [0, 0], [1, 0], [1.05, 0.25], [1, 0.5], [1.05, 0.75], [1, 1], [0, 1], [0, 0]]]}},
+                  {"type": "Feature", "properties": {"code": "E"},
+                   "geometry": {"type": "Polygon", "coordinates": [[
+                     [1, 1], [1.05, 0.75], [1, 0.5], [1.05, 0.25], [1, 0], [2, 0], [2, 1], [1, 1]]]}}]}
+                """;
+
+        JsonNode features = GeometrySimplifier.simplify(objectMapper.readTree(bumps), 0.045, 6, objectMapper)
+                .path("features");
+
+        Set<String> west = borderPoints(features.get(0));
+        assertEquals(3, west.size());
+        assertEquals(west, borderPoints(features.get(1)));
+    }
+
+    @Test
+    void ringCoordinatesStayClosed() throws Exception {
+        JsonNode simplified = GeometrySimplifier.simplify(objectMapper.readTree(SHARED_BORDER), 0.01, 6, objectMapper);
+
+        for (JsonNode feature : simplified.path("features")) {
+            JsonNode ring = feature.path("geometry").path("coordinates").get(0);
+            assertEquals(ring.get(0), ring.get(ring.size() - 1));
+        }
+    }
+
+    /**
+     * Vertices of the first ring that lie on the shared border (0.9 <= x <= 1.3)
+     */
+    private static Set<String> borderPoints(JsonNode feature) {
+        Set<String> points = new TreeSet<>();
+        for (JsonNode point : feature.path("geometry").path("coordinates").get(0)) {
+            double x = point.get(0).asDouble();
+            if (x >= 0.9 && x <= 1.3) {
+                points.add(x + "," + point.get(1).asDouble());
+            }
+        }
+        return points;
+    }
+}
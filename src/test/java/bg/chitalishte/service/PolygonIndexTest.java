@@ -0,0 +1,56 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PolygonIndexTest {
+
+    // A: square 0..10 with a hole 4..6; B: two separate squares 20..22 and 30..32
+    private static final String FEATURES = """
+            [{"type": "Feature", "properties": {"code": "A"},
+              "geometry": {"type": "Polygon", "coordinates": [
+                [[0, 0], [10, 0], [10, 10], [0, 10], [0, 0]],
+                [[4, 4], [4, 6], [6, 6], [6, 4], [4, 4]]]}},
+             {"type": "Feature", "properties": {"code": "B"},
+              "geometry": {"type": "MultiPolygon", "coordinates": [
+                [[[20, 20], [22, 20], [22, 22], [20, 22], [20, 20]]],
+                [[[30, 30], [32, 30], [32, 32], [30, 32], [30, 30]]]]}},
+             {"type": "Feature", "properties": {},
+              "geometry": {"type": "Polygon", "coordinates": [[[40, 40], [41, 40], [41, 41], [40, 40]]]}}]
+            """;
+
+    private final PolygonIndex index;
+
+    PolygonIndexTest() throws Exception {
+        index = PolygonIndex.fromFeatures(new ObjectMapper().readTree(FEATURES), "code");
+    }
+
+    @Test
+    void skipsFeaturesWithoutCode() {
+        assertEquals(2, index.size());
+        assertEquals(Optional.empty(), index.find(40.8, 40.2));
+    }
+
+    @Test
+    void pointInHoleIsOutside() {
+        assertEquals(Optional.of("A"), index.find(2, 2));
+        assertEquals(Optional.of("A"), index.find(5, 8));
+        assertEquals(Optional.empty(), index.find(5, 5));
+    }
+
+    @Test
+    void everyMultiPolygonPartMatches() {
+        assertEquals(Optional.of("B"), index.find(21, 21));
+        assertEquals(Optional.of("B"), index.find(31, 31));
+        assertEquals(Optional.empty(), index.find(25, 25));
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        assertEquals(Optional.empty(), PolygonIndex.empty().find(1, 1));
+    }
+}
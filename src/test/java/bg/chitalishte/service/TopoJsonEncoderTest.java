@@ -0,0 +1,103 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopoJsonEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Two unit squares sharing the edge x = 1
+    private static final String ADJACENT_SQUARES = """
+            {"type": "FeatureCollection", "features": [
+              {"type": "Feature", "properties": {"code": "A"},
+               "geometry": {"type": "Polygon", "coordinates": [[[0, 0], [1, 0], [1, 1], [0, 1], [0, 0]]]}},
+              {"type": "Feature", "properties": {"code": "B"},
+               "geometry": {"type": "Polygon", "coordinates": [[[1, 0], [2, 0], [2, 1], [1, 1], [1, 0]]]}}]}
+            """;
+
+    @Test
+    void sharedEdgeIsOneArcReferencedReversed() throws Exception {
+        JsonNode topology = TopoJsonEncoder.encode(objectMapper.readTree(ADJACENT_SQUARES), "squares", objectMapper);
+
+        assertEquals("Topology", topology.path("type").asText());
+        JsonNode geometries = topology.path("objects").path("squares").path("geometries");
+        assertEquals(2, geometries.size());
+        assertEquals("Polygon", geometries.get(0).path("type").asText());
+        assertEquals("A", geometries.get(0).path("properties").path("code").asText());
+
+        // Each square is cut at the junctions (1, 0) and (1, 1): its own three sides plus the shared edge
+        assertEquals(3, topology.path("arcs").size());
+
+        List<Integer> a = ringArcs(geometries.get(0));
+        List<Integer> b = ringArcs(geometries.get(1));
+        assertEquals(2, a.size());
+        assertEquals(2, b.size());
+
+        int shared = -1;
+        for (int id : a) {
+            if (id >= 0 && b.contains(~id)) {
+                shared = id;
+            } else if (id < 0 && b.contains(~id)) {
+                shared = ~id;
+            }
+        }
+        assertTrue(shared >= 0, "the shared edge is referenced once as index and once as ~index");
+
+        for (double[] point : decodeArc(topology, shared)) {
+            assertEquals(1, point[0], 1e-4);
+        }
+    }
+
+    @Test
+    void lineStringIsEncodedAsArcs() throws Exception {
+        String line = """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "properties": {},
+                   "geometry": {"type": "LineString", "coordinates": [[0, 0], [1, 1], [2, 0]]}}]}
+                """;
+
+        JsonNode topology = TopoJsonEncoder.encode(objectMapper.readTree(line), "lines", objectMapper);
+
+        JsonNode geometry = topology.path("objects").path("lines").path("geometries").get(0);
+        assertEquals("LineString", geometry.path("type").asText());
+        assertEquals(1, geometry.path("arcs").size());
+
+        List<double[]> points = decodeArc(topology, geometry.path("arcs").get(0).asInt());
+        assertEquals(3, points.size());
+        assertEquals(1, points.get(1)[0], 1e-4);
+        assertEquals(1, points.get(1)[1], 1e-4);
+    }
+
+    private static List<Integer> ringArcs(JsonNode polygon) {
+        List<Integer> ids = new ArrayList<>();
+        polygon.path("arcs").get(0).forEach(id -> ids.add(id.asInt()));
+        return ids;
+    }
+
+    /**
+     * Undo delta encoding and quantization of one arc
+     */
+    private static List<double[]> decodeArc(JsonNode topology, int index) {
+        JsonNode scale = topology.path("transform").path("scale");
+        JsonNode translate = topology.path("transform").path("translate");
+        List<double[]> points = new ArrayList<>();
+        long x = 0;
+        long y = 0;
+        for (JsonNode delta : topology.path("arcs").get(index)) {
+            x += delta.get(0).asLong();
+            y += delta.get(1).asLong();
+            points.add(new double[]{
+                    x * scale.get(0).asDouble() + translate.get(0).asDouble(),
+                    y * scale.get(1).asDouble() + translate.get(1).asDouble()});
+        }
+        return points;
+    }
+}
@@ -0,0 +1,237 @@
+package bg.chitalishte.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorTileEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Square lon -90..90, lat -45..45 with a hole lon -45..45, lat -20..20 (GeoJSON winding: exterior CCW)
+    private static final String SQUARE_WITH_HOLE = """
+            [{"type": "Feature", "properties": {"code": "SQ", "rank": 7},
+              "geometry": {"type": "Polygon", "coordinates": [
+                [[-90, -45], [90, -45], [90, 45], [-90, 45], [-90, -45]],
+                [[-45, -20], [-45, 20], [45, 20], [45, -20], [-45, -20]]]}}]
+            """;
+
+    @Test
+    void encodesPolygonWithHoleAsMvtLayer() throws Exception {
+        List<VectorTileEncoder.TileFeature> features = VectorTileEncoder.prepare(objectMapper.readTree(SQUARE_WITH_HOLE));
+
+        Layer layer = Layer.decode(VectorTileEncoder.encode("test", features, 0, 0, 0));
+
+        assertEquals(2, layer.version);
+        assertEquals("test", layer.name);
+        assertEquals(VectorTileEncoder.EXTENT, layer.extent);
+        assertEquals(List.of("code", "rank"), layer.keys);
+        assertEquals(1, layer.features.size());
+
+        Feature feature = layer.features.get(0);
+        assertEquals(1, feature.id);
+        assertEquals(3, feature.type);
+
+        List<int[]> rings = decodeRings(feature.geometry);
+        assertEquals(2, rings.size());
+        // MVT: exterior ring has positive area in tile coordinates (y down), holes negative
+        assertTrue(area(rings.get(0)) > 0);
+        assertTrue(area(rings.get(1)) < 0);
+
+        // lon -90 / 90 are a quarter of the world in from either edge
+        int[] exterior = rings.get(0);
+        assertEquals(1024, min(exterior, 0));
+        assertEquals(3072, max(exterior, 0));
+        assertEquals(4, exterior.length / 2);
+    }
+
+    @Test
+    void clipsToBufferedExtent() throws Exception {
+        List<VectorTileEncoder.TileFeature> features = VectorTileEncoder.prepare(objectMapper.readTree(SQUARE_WITH_HOLE));
+
+        // North-west quarter of the world: the square reaches far past the right and bottom edges
+        Layer layer = Layer.decode(VectorTileEncoder.encode("test", features, 1, 0, 0));
+
+        List<int[]> rings = decodeRings(layer.features.get(0).geometry);
+        int[] exterior = rings.get(0);
+        assertEquals(2048, min(exterior, 0));
+        assertEquals(VectorTileEncoder.EXTENT + 64, max(exterior, 0));
+        assertEquals(VectorTileEncoder.EXTENT + 64, max(exterior, 1));
+        assertTrue(area(exterior) > 0);
+    }
+
+    @Test
+    void emptyTileOutsideFeatures() throws Exception {
+        List<VectorTileEncoder.TileFeature> features = VectorTileEncoder.prepare(objectMapper.readTree(SQUARE_WITH_HOLE));
+
+        assertEquals(0, VectorTileEncoder.encode("test", features, 4, 0, 0).length);
+    }
+
+    /**
+     * Rings in absolute tile coordinates; checks the MoveTo(1) / LineTo(n) / ClosePath command sequence
+     */
+    private static List<int[]> decodeRings(int[] geometry) {
+        List<int[]> rings = new ArrayList<>();
+        int x = 0;
+        int y = 0;
+        int i = 0;
+        while (i < geometry.length) {
+            assertEquals(command(1, 1), geometry[i++]);
+            x += zigZagDecode(geometry[i++]);
+            y += zigZagDecode(geometry[i++]);
+
+            int lineTo = geometry[i++];
+            assertEquals(2, lineTo & 0x7);
+            int count = lineTo >>> 3;
+            int[] ring = new int[(count + 1) * 2];
+            ring[0] = x;
+            ring[1] = y;
+            for (int p = 1; p <= count; p++) {
+                x += zigZagDecode(geometry[i++]);
+                y += zigZagDecode(geometry[i++]);
+                ring[2 * p] = x;
+                ring[2 * p + 1] = y;
+            }
+
+            assertEquals(command(7, 1), geometry[i++]);
+            rings.add(ring);
+        }
+        return rings;
+    }
+
+    private static int command(int id, int count) {
+        return id | (count << 3);
+    }
+
+    private static int zigZagDecode(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long area(int[] ring) {
+        long area = 0;
+        int n = ring.length / 2;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            area += (long) ring[2 * j] * ring[2 * i + 1] - (long) ring[2 * i] * ring[2 * j + 1];
+        }
+        return area;
+    }
+
+    private static int min(int[] ring, int axis) {
+        int min = Integer.MAX_VALUE;
+        for (int i = axis; i < ring.length; i += 2) {
+            min = Math.min(min, ring[i]);
+        }
+        return min;
+    }
+
+    private static int max(int[] ring, int axis) {
+        int max = Integer.MIN_VALUE;
+        for (int i = axis; i < ring.length; i += 2) {
+            max = Math.max(max, ring[i]);
+        }
+        return max;
+    }
+
+    // ========== MINIMAL PROTOBUF READER ==========
+
+    private static final class Layer {
+        long version;
+        String name;
+        long extent;
+        final List<String> keys = new ArrayList<>();
+        final List<Feature> features = new ArrayList<>();
+
+        static Layer decode(byte[] tile) {
+            ProtoReader tileReader = new ProtoReader(tile);
+            assertEquals(3, tileReader.nextField());
+            ProtoReader reader = new ProtoReader(tileReader.bytes());
+            assertTrue(tileReader.done());
+
+            Layer layer = new Layer();
+            while (!reader.done()) {
+                switch (reader.nextField()) {
+                    case 15 -> layer.version = reader.varint();
+                    case 1 -> layer.name = new String(reader.bytes(), StandardCharsets.UTF_8);
+                    case 2 -> layer.features.add(Feature.decode(reader.bytes()));
+                    case 3 -> layer.keys.add(new String(reader.bytes(), StandardCharsets.UTF_8));
+                    case 4 -> reader.bytes();
+                    case 5 -> layer.extent = reader.varint();
+                    default -> throw new AssertionError("Unexpected layer field");
+                }
+            }
+            return layer;
+        }
+    }
+
+    private static final class Feature {
+        long id;
+        long type;
+        int[] geometry;
+
+        static Feature decode(byte[] bytes) {
+            ProtoReader reader = new ProtoReader(bytes);
+            Feature feature = new Feature();
+            while (!reader.done()) {
+                switch (reader.nextField()) {
+                    case 1 -> feature.id = reader.varint();
+                    case 2 -> reader.bytes();
+                    case 3 -> feature.type = reader.varint();
+                    case 4 -> feature.geometry = new ProtoReader(reader.bytes()).packed();
+                    default -> throw new AssertionError("Unexpected feature field");
+                }
+            }
+            return feature;
+        }
+    }
+
+    private static final class ProtoReader {
+        private final byte[] bytes;
+        private int position;
+
+        ProtoReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        boolean done() {
+            return position >= bytes.length;
+        }
+
+        int nextField() {
+            return (int) (varint() >>> 3);
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        byte[] bytes() {
+            int length = (int) varint();
+            byte[] value = new byte[length];
+            System.arraycopy(bytes, position, value, 0, length);
+            position += length;
+            return value;
+        }
+
+        int[] packed() {
+            List<Integer> values = new ArrayList<>();
+            while (!done()) {
+                values.add((int) varint());
+            }
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}